@@ -2,11 +2,13 @@ package hu.hmarton.allianz.calendar;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application main class.
  */
 @SpringBootApplication
+@EnableScheduling
 public class AllianzCalendarApp {
     /**
      * Application main entry point.
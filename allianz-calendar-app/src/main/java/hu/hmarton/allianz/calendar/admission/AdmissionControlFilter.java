@@ -0,0 +1,144 @@
+package hu.hmarton.allianz.calendar.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hu.hmarton.allianz.calendar.dto.AdmissionStatisticsDTO;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servlet filter guarding the reservation endpoints. Every client, identified by its remote address, has its own
+ * token bucket, and the number of requests processed at the same time is bounded. Requests over either limit are
+ * rejected with 429 before any JSON binding or storage access happens. Headers sent by the client are deliberately
+ * not used to identify it, otherwise a client could get a fresh bucket for every request. Behind a reverse proxy, the
+ * remote address is resolved by the servlet container from the forwarded headers of the trusted proxies only
+ * ({@code server.tomcat.remoteip.internal-proxies}).
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    /** Prefix of the paths guarded by the filter. */
+    private static final String GUARDED_PATH_PREFIX = "/reservation";
+    /** Number of seconds the client should wait after a rejection. */
+    private static final String RETRY_AFTER_SECONDS = "1";
+    /** Message of a rejected request. */
+    private static final String REJECTION_MESSAGE = "Too many requests, try again later!";
+    /** Maximal number of clients whose token buckets are held. */
+    private static final long MAX_CLIENTS = 100_000;
+    /** Time a token bucket of an idle client is held. */
+    private static final Duration IDLE_CLIENT_EXPIRATION = Duration.ofMinutes(10);
+
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    /** Whether admission control is enabled. */
+    private final boolean enabled;
+    /** Size of the token buckets. */
+    private final double rateLimitCapacity;
+    /** Refill rate of the token buckets per second. */
+    private final double rateLimitRefillPerSecond;
+    /** Maximal number of requests processed at the same time. */
+    private final int maxConcurrentRequests;
+    /** Token buckets by client identifier. */
+    private final Cache<String, TokenBucket> tokenBuckets;
+    /** Permits of the requests processed at the same time. */
+    private final Semaphore concurrencyPermits;
+    /** Number of requests admitted. */
+    private final AtomicLong admittedCount = new AtomicLong();
+    /** Number of requests rejected by the rate limit of their client. */
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    /** Number of requests rejected because too many requests were processed. */
+    private final AtomicLong concurrencyLimitedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     * @param enabled Whether admission control is enabled
+     * @param rateLimitCapacity Size of the token buckets, the burst allowed for a client
+     * @param rateLimitRefillPerSecond Number of requests per second allowed for a client in the long run
+     * @param maxConcurrentRequests Maximal number of requests processed at the same time
+     */
+    public AdmissionControlFilter(@Value("${calendar.admission.enabled:true}") final boolean enabled,
+            @Value("${calendar.admission.rate-limit.capacity:50}") final double rateLimitCapacity,
+            @Value("${calendar.admission.rate-limit.refill-per-second:20}") final double rateLimitRefillPerSecond,
+            @Value("${calendar.admission.max-concurrent-requests:32}") final int maxConcurrentRequests) {
+        this.enabled = enabled;
+        this.rateLimitCapacity = rateLimitCapacity;
+        this.rateLimitRefillPerSecond = rateLimitRefillPerSecond;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.tokenBuckets = Caffeine.newBuilder().maximumSize(MAX_CLIENTS).expireAfterAccess(IDLE_CLIENT_EXPIRATION)
+                .build();
+        this.concurrencyPermits = new Semaphore(maxConcurrentRequests);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(GUARDED_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String clientId = request.getRemoteAddr();
+        final TokenBucket tokenBucket =
+                tokenBuckets.get(clientId, key -> new TokenBucket(rateLimitCapacity, rateLimitRefillPerSecond));
+        if (!tokenBucket.tryConsume()) {
+            rateLimitedCount.incrementAndGet();
+            logger.debug("Rejecting request of client {}: rate limit exceeded", clientId);
+            reject(response);
+            return;
+        }
+        if (!concurrencyPermits.tryAcquire()) {
+            tokenBucket.refund();
+            concurrencyLimitedCount.incrementAndGet();
+            logger.debug("Rejecting request of client {}: {} requests are already in progress", clientId,
+                    maxConcurrentRequests);
+            reject(response);
+            return;
+        }
+        admittedCount.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyPermits.release();
+        }
+    }
+
+    /**
+     * Returns the statistics of the admission control.
+     * @return Admission statistics
+     */
+    public AdmissionStatisticsDTO getStatistics() {
+        final AdmissionStatisticsDTO admissionStatisticsDTO = new AdmissionStatisticsDTO();
+        admissionStatisticsDTO.setAdmittedCount(admittedCount.get());
+        admissionStatisticsDTO.setRateLimitedCount(rateLimitedCount.get());
+        admissionStatisticsDTO.setConcurrencyLimitedCount(concurrencyLimitedCount.get());
+        admissionStatisticsDTO.setInProgressCount(maxConcurrentRequests - concurrencyPermits.availablePermits());
+        admissionStatisticsDTO.setTrackedClientCount(tokenBuckets.estimatedSize());
+        return admissionStatisticsDTO;
+    }
+
+    /**
+     * Rejects a request with 429 status.
+     * @param response HTTP response
+     * @throws IOException If the response couldn't be written
+     */
+    private void reject(final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(REJECTION_MESSAGE);
+    }
+}
@@ -0,0 +1,54 @@
+package hu.hmarton.allianz.calendar.admission;
+
+/**
+ * Token bucket limiting the request rate of one client. The bucket holds at most {@code capacity} tokens and is
+ * refilled continuously; every admitted request takes one token.
+ */
+class TokenBucket {
+    /** Number of nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** Maximal number of tokens, the size of a burst allowed. */
+    private final double capacity;
+    /** Number of tokens added per nanosecond. */
+    private final double refillPerNano;
+    /** Number of tokens currently available. */
+    private double tokens;
+    /** Time of the last refill, in {@link System#nanoTime()} units. */
+    private long lastRefillNanos;
+
+    /**
+     * Constructor. The bucket starts full.
+     * @param capacity Maximal number of tokens
+     * @param refillPerSecond Number of tokens added per second
+     */
+    TokenBucket(final double capacity, final double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from the bucket if one is available. The time is read while holding the lock of the bucket, so
+     * the refills of concurrent callers never overlap or go backwards.
+     * @return {@code true} if a token was taken
+     */
+    synchronized boolean tryConsume() {
+        final long nowNanos = System.nanoTime();
+        tokens = Math.min(capacity, tokens + Math.max(0, nowNanos - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = Math.max(lastRefillNanos, nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Gives back a token taken by a request which was rejected for another reason.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,26 @@
+package hu.hmarton.allianz.calendar.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Configuration of the {@link Clock} every time-dependent decision is based on. The dates of the reservations are
+ * wall-clock times in the zone of the calendar, set by the {@code calendar.time-zone} property, independently of the
+ * zone of the server.
+ */
+@Configuration
+public class ClockConfig {
+    /**
+     * Creates the system clock of the calendar zone.
+     * @param timeZone Zone of the calendar
+     * @return Clock of the calendar
+     */
+    @Bean
+    public Clock clock(@Value("${calendar.time-zone:UTC}") final ZoneId timeZone) {
+        return Clock.system(timeZone);
+    }
+}
@@ -0,0 +1,63 @@
+package hu.hmarton.allianz.calendar.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Jackson module writing {@link LocalDateTime} values as the number of minutes elapsed since 1970-01-01T00:00 (an
+ * "epoch minute"), ignoring seconds. Used by compact binary representations, where a small integer is much cheaper
+ * to encode and decode than an ISO date string. ISO date strings are still accepted when reading.
+ */
+public class EpochMinuteModule extends SimpleModule {
+    /** Number of seconds in a minute. */
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    /** Constructor. */
+    public EpochMinuteModule() {
+        super(EpochMinuteModule.class.getSimpleName());
+        addSerializer(LocalDateTime.class, new EpochMinuteSerializer());
+        addDeserializer(LocalDateTime.class, new EpochMinuteDeserializer());
+    }
+
+    /** Serializer writing {@link LocalDateTime} values as epoch minutes. */
+    static class EpochMinuteSerializer extends StdScalarSerializer<LocalDateTime> {
+        /** Constructor. */
+        EpochMinuteSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(final LocalDateTime value, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE);
+        }
+    }
+
+    /** Deserializer reading {@link LocalDateTime} values from epoch minutes or ISO date strings. */
+    static class EpochMinuteDeserializer extends StdScalarDeserializer<LocalDateTime> {
+        /** Constructor. */
+        EpochMinuteDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofEpochSecond(parser.getLongValue() * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+            }
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hu.hmarton.allianz.calendar.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Configuration of the representations the REST interfaces can produce and consume. JSON stays the default;
+ * callers sending {@code Accept: application/cbor} get a compact CBOR representation where dates and times are
+ * encoded as epoch minutes (see {@link EpochMinuteModule}).
+ */
+@Configuration
+public class WireFormatConfig {
+    /**
+     * Creates the message converter of the CBOR representation. It replaces the default CBOR converter of Spring MVC.
+     * @return CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor()
+                .modules(new JavaTimeModule(), new EpochMinuteModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
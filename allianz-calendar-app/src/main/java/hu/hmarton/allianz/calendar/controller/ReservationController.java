@@ -1,64 +1,183 @@
 package hu.hmarton.allianz.calendar.controller;
 
 import hu.hmarton.allianz.calendar.dto.OpenSlotDTO;
+import hu.hmarton.allianz.calendar.dto.UtilizationDTO;
+import hu.hmarton.allianz.calendar.dto.UtilizationGranularity;
+import hu.hmarton.allianz.calendar.dto.WaitlistEntryDTO;
+import hu.hmarton.allianz.calendar.dto.WaitlistStatus;
+import hu.hmarton.allianz.calendar.exc.IdempotencyKeyReusedException;
 import hu.hmarton.allianz.calendar.exc.ValidationErrorMessages;
 import hu.hmarton.allianz.calendar.exc.ValidationException;
+import hu.hmarton.allianz.calendar.logging.LogMarkers;
 import hu.hmarton.allianz.calendar.model.CalendarEntry;
-import hu.hmarton.allianz.calendar.repository.CalendarEntryRepository;
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+import hu.hmarton.allianz.calendar.service.IdempotencyStore;
+import hu.hmarton.allianz.calendar.service.OpenSlotService;
+import hu.hmarton.allianz.calendar.service.ReservationService;
+import hu.hmarton.allianz.calendar.service.UtilizationService;
+import hu.hmarton.allianz.calendar.service.WaitlistService;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import hu.hmarton.allianz.calendar.time.WeekBoundaries;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
 
 /**
  * REST controller class for managing reservations.
  */
 @RestController
 public class ReservationController {
+    /** Name of the request header holding the idempotency key of a request. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     /** {@link Logger} instance. */
     private final Logger logger = LoggerFactory.getLogger(ReservationController.class);
-    /** {@link CalendarEntryRepository} bean. */
+    /** {@link CalendarEntryStore} bean. */
     @Autowired
-    private CalendarEntryRepository calendarEntryRepository;
+    private CalendarEntryStore calendarEntryStore;
+    /** {@link OpenSlotService} bean. */
+    @Autowired
+    private OpenSlotService openSlotService;
+    /** {@link UtilizationService} bean. */
+    @Autowired
+    private UtilizationService utilizationService;
+    /** {@link ReservationService} bean. */
+    @Autowired
+    private ReservationService reservationService;
+    /** {@link IdempotencyStore} bean. */
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    /** {@link WaitlistService} bean. */
+    @Autowired
+    private WaitlistService waitlistService;
+    /** {@link CalendarClock} bean. */
+    @Autowired
+    private CalendarClock calendarClock;
 
     /**
-     * Creates a new reservation based on the data given by the caller.
+     * Creates a new reservation based on the data given by the caller. If the caller sends an idempotency key, a
+     * repeated request with the same key returns the reservation created by the first one without validating again,
+     * as long as it asks for the same reservation.
      * @param calendarEntry Calendar entry to be created
+     * @param idempotencyKey Idempotency key chosen by the caller, or {@code null}
      * @return New CalendarEntry entity created
      */
     @PostMapping(value = "/reservation")
-    public CalendarEntry createNewReservation(@Valid @RequestBody final CalendarEntry calendarEntry) {
-        logger.info("Creating new reservation as {}", calendarEntry);
-        logger.debug("Modify the dates in the reservation object to use 00 seconds always.");
-        calendarEntry.setStartDate(calendarEntry.getStartDate() != null
-                ? calendarEntry.getStartDate().truncatedTo(ChronoUnit.SECONDS) : null);
-        calendarEntry.setEndDate(calendarEntry.getEndDate() != null
-                ? calendarEntry.getEndDate().truncatedTo(ChronoUnit.SECONDS) : null);
+    public CalendarEntry createNewReservation(@Valid @RequestBody final CalendarEntry calendarEntry,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
+        logger.info(LogMarkers.RESERVATION_CREATE, "Creating reservation start={} end={}", calendarEntry.getStartDate(),
+                calendarEntry.getEndDate());
+        truncateReservationDates(calendarEntry);
+        if (idempotencyKey != null) {
+            checkIdempotencyKey(idempotencyKey);
+            final Optional<CalendarEntry> previousResult = idempotencyStore.findPreviousResult(idempotencyKey);
+            if (previousResult.isPresent()) {
+                logger.info(LogMarkers.RESERVATION_CREATE, "Returning earlier reservation idempotencyKey={}",
+                        idempotencyKey);
+                return replayPreviousResult(previousResult.get(), calendarEntry);
+            }
+        }
 
         checkReservationIsWithinWeek(calendarEntry);
         checkReservationTimeWithinDay(calendarEntry);
         checkReservationLength(calendarEntry);
         checkReservationOverlapping(calendarEntry);
+        checkReservationNotAwaited(calendarEntry);
+
+        calendarEntry.setIdempotencyKey(idempotencyKey);
+        final CalendarEntry savedCalendarEntry;
+        try {
+            savedCalendarEntry = reservationService.saveReservation(calendarEntry);
+        } catch (final DataIntegrityViolationException exception) {
+            if (idempotencyKey == null) {
+                throw exception;
+            }
+            logger.info(LogMarkers.RESERVATION_CREATE, "Reservation created by concurrent request idempotencyKey={}",
+                    idempotencyKey);
+            return replayPreviousResult(idempotencyStore.findPreviousResult(idempotencyKey)
+                    .orElseThrow(() -> exception), calendarEntry);
+        }
+        if (idempotencyKey != null) {
+            idempotencyStore.remember(savedCalendarEntry);
+        }
+        return savedCalendarEntry;
+    }
+
+    /**
+     * Creates a new reservation if its slots are free, otherwise puts it on the waitlist. A waiting reservation is
+     * created automatically, first-come-first-served, as soon as all of its slots are released.
+     * @param calendarEntry Calendar entry to be created
+     * @return The waitlist entry, with 200 status if the reservation was created, or with 202 status if it waits
+     */
+    @PostMapping(value = "/reservation/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> createNewReservationOrWait(
+            @Valid @RequestBody final CalendarEntry calendarEntry) {
+        logger.info(LogMarkers.WAITLIST, "Creating reservation or waiting start={} end={}",
+                calendarEntry.getStartDate(), calendarEntry.getEndDate());
+        truncateReservationDates(calendarEntry);
+
+        checkReservationIsWithinWeek(calendarEntry);
+        checkReservationTimeWithinDay(calendarEntry);
+        checkReservationLength(calendarEntry);
+
+        final WaitlistEntryDTO waitlistEntry = waitlistService.reserveOrWait(calendarEntry);
+        return ResponseEntity.status(waitlistEntry.getStatus() == WaitlistStatus.WAITING ? HttpStatus.ACCEPTED
+                : HttpStatus.OK).body(waitlistEntry);
+    }
+
+    /**
+     * Returns the status of a reservation request on the waitlist.
+     * @param id Identifier of the waitlist entry
+     * @return The waitlist entry
+     */
+    @GetMapping(value = "/reservation/waitlist/{id}")
+    public WaitlistEntryDTO getWaitlistEntry(@PathVariable(name = "id") final long id) {
+        logger.info(LogMarkers.WAITLIST, "Getting waitlist entry id={}", id);
+        return waitlistService.findWaitlistEntry(id).orElseThrow(
+                () -> new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_WAITLIST_ENTRY_NOT_FOUND));
+    }
 
-        return calendarEntryRepository.save(calendarEntry);
+    /**
+     * Cancels a reservation. Its slots are allocated to the reservations waiting for them.
+     * @param id Identifier of the reservation
+     * @return The cancelled CalendarEntry
+     */
+    @DeleteMapping(value = "/reservation/{id}")
+    public CalendarEntry cancelReservation(@PathVariable(name = "id") final long id) {
+        logger.info(LogMarkers.RESERVATION_CANCEL, "Cancelling reservation id={}", id);
+        final CalendarEntry cancelledCalendarEntry = reservationService.cancelReservation(id).orElseThrow(
+                () -> new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_NOT_FOUND));
+        if (cancelledCalendarEntry.getIdempotencyKey() != null) {
+            idempotencyStore.forget(cancelledCalendarEntry.getIdempotencyKey());
+        }
+        waitlistService.allocateReleasedSlots(cancelledCalendarEntry.getStartDate(),
+                cancelledCalendarEntry.getEndDate());
+        return cancelledCalendarEntry;
     }
 
     /**
@@ -67,47 +186,79 @@ public class ReservationController {
      */
     @GetMapping(value = "/reservations/weekly")
     public List<CalendarEntry> listWeeklySchedule() {
-        final LocalDateTime now = LocalDateTime.now();
-        final LocalDateTime mondayOfWeek = LocalTime.MIN.atDate(now.with(ChronoField.DAY_OF_WEEK,
-                DayOfWeek.MONDAY.getValue()).toLocalDate());
-        final LocalDateTime fridayOfWeek =
-                LocalTime.MAX.atDate(now.with(ChronoField.DAY_OF_WEEK, DayOfWeek.FRIDAY.getValue()).toLocalDate());
-        logger.info("Listing reservations for current week ({} - {})", mondayOfWeek.toLocalDate(), fridayOfWeek.toLocalDate());
+        final WeekBoundaries currentWeek = calendarClock.currentWeek();
+        logger.info(LogMarkers.WEEKLY_SCHEDULE, "Listing reservations from={} to={}", currentWeek.start(),
+                currentWeek.end());
 
-        return calendarEntryRepository.findByStartDateBetweenOrderByStartDateAsc(mondayOfWeek, fridayOfWeek);
+        return calendarEntryStore.findByStartDateBetween(currentWeek.start(), currentWeek.end());
     }
 
-    /** Minutes number indicating half of an hour. */
-    private static final int HALF_OF_HOUR_IN_MINUTES = 30;
-
     /**
      * Returns the open slots of the current day.
      * @return List of open slots
      */
     @GetMapping(value = "/reservations/freehours/day")
     public List<OpenSlotDTO> listDailyOpenSlots() {
-        final LocalDateTime now = LocalDateTime.now();
-        logger.info("Listing all open time slots for current day ({})", now.toLocalDate());
-        return listOpenSlotsForDay(now);
+        final LocalDateTime now = calendarClock.now();
+        logger.info(LogMarkers.FREE_HOURS, "Listing open slots of day now={}", now);
+        checkIsWeekday(now);
+        return openSlotService.listOpenSlotsByDay(now, now.toLocalDate()).get(now.toLocalDate());
     }
 
+    /**
+     * Returns the open slots of the rest of the current week.
+     * @return List of open slots
+     */
     @GetMapping(value = "/reservations/freehours/week")
     public List<OpenSlotDTO> listWeeklyOpenSlots() {
-        logger.info("Listing all open time slots for current week");
-        final LocalDateTime now = LocalDateTime.now();
-        int currentDayValue = now.getDayOfWeek().getValue();
-        final List<OpenSlotDTO> openSlots = listOpenSlotsForDay(now);
-        currentDayValue++;
-        LocalDateTime currentDayStart = now.truncatedTo(ChronoUnit.DAYS);
-        while (currentDayValue <= DayOfWeek.FRIDAY.getValue()) {
-            currentDayStart = currentDayStart.plusDays(1);
-            openSlots.addAll(listOpenSlotsForDay(currentDayStart));
-            currentDayValue++;
-        }
-
+        final LocalDateTime now = calendarClock.now();
+        logger.info(LogMarkers.FREE_HOURS, "Listing open slots of week now={}", now);
+        checkIsWeekday(now);
+        final LocalDate fridayOfWeek = calendarClock.weekOf(now.toLocalDate()).friday();
+        final List<OpenSlotDTO> openSlots = new ArrayList<>();
+        openSlotService.listOpenSlotsByDay(now, fridayOfWeek).values().forEach(openSlots::addAll);
         return openSlots;
     }
 
+    /**
+     * Returns the open slots of the weekdays within the specified date range, grouped by day. Slots in the past are
+     * not returned.
+     * @param from First day of the range
+     * @param to Last day of the range (inclusive)
+     * @return Open slots grouped by day
+     */
+    @GetMapping(value = "/reservations/freehours")
+    public SortedMap<LocalDate, List<OpenSlotDTO>> listOpenSlotsByDay(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+        logger.info(LogMarkers.FREE_HOURS, "Listing open slots from={} to={}", from, to);
+        checkDateRange(from, to, LogMarkers.FREE_HOURS);
+        final LocalDateTime now = calendarClock.now();
+        return openSlotService.listOpenSlotsByDay(from.isAfter(now.toLocalDate()) ? from.atStartOfDay() : now, to);
+    }
+
+    /**
+     * Returns the utilization of the weekdays within the specified date range in a compact, encoded form.
+     * @param from First day of the range
+     * @param to Last day of the range (inclusive)
+     * @param granularity Granularity of the buckets: {@code slot}, {@code hour} or {@code day}
+     * @return Encoded utilization of the range
+     */
+    @GetMapping(value = "/reservations/utilization")
+    public UtilizationDTO getUtilization(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to,
+            @RequestParam(name = "granularity", defaultValue = "slot") final String granularity) {
+        logger.info(LogMarkers.UTILIZATION, "Computing utilization from={} to={}", from, to);
+        checkDateRange(from, to, LogMarkers.UTILIZATION);
+        final UtilizationGranularity utilizationGranularity = UtilizationGranularity.fromValue(granularity);
+        if (utilizationGranularity == null) {
+            logger.info(LogMarkers.UTILIZATION, "Unknown utilization granularity={}", granularity);
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_UNKNOWN_GRANULARITY);
+        }
+        return utilizationService.computeUtilization(from, to, utilizationGranularity);
+    }
+
     /** Pattern of date and time used to query person name did the reservation. */
     private static final String DATE_TIME_FORMAT = "yy.MM.dd HH:mm";
 
@@ -119,65 +270,64 @@ public class ReservationController {
      */
     @GetMapping(value = "/reservations/personname/bydate")
     public String getReservationPersonNameByDate(@RequestParam(name = "dateString") final String dateString) {
-        logger.info("Get person's name who made the reservation by date: {}", dateString);
+        logger.info(LogMarkers.PERSON_NAME_BY_DATE, "Getting person name date={}", dateString);
         final LocalDateTime dateTime = LocalDateTime.from(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT).parse(dateString));
-        final Optional<CalendarEntry> optionalCalendarEntry = calendarEntryRepository.getByDate(dateTime);
+        final Optional<CalendarEntry> optionalCalendarEntry = calendarEntryStore.getByDate(dateTime);
         return optionalCalendarEntry.isPresent() ? optionalCalendarEntry.get().getBookingPersonName()
                 : "No reservation is available at the specified date and time.";
     }
 
+    /**
+     * Modifies the dates of a reservation to use 00 seconds always.
+     * @param calendarEntry New calendar entry object
+     */
+    private void truncateReservationDates(final CalendarEntry calendarEntry) {
+        calendarEntry.setStartDate(calendarEntry.getStartDate() != null
+                ? calendarEntry.getStartDate().truncatedTo(ChronoUnit.SECONDS) : null);
+        calendarEntry.setEndDate(calendarEntry.getEndDate() != null
+                ? calendarEntry.getEndDate().truncatedTo(ChronoUnit.SECONDS) : null);
+    }
+
     /**
      * Checks if a reservation is within the allowed range within the week determined by its starting date.
      * @param calendarEntry New calendar entry object
      */
     private void checkReservationIsWithinWeek(final CalendarEntry calendarEntry) {
-        logger.debug("Checking if reservation ({}) is within the allowed range the week", calendarEntry);
         final LocalDateTime startDate = calendarEntry.getStartDate().truncatedTo(ChronoUnit.SECONDS);
         final LocalDateTime endDate = calendarEntry.getEndDate().truncatedTo(ChronoUnit.SECONDS);
         if (startDate.isAfter(endDate)) {
-            logger.error("Reservation ({}) start date is before its end date", calendarEntry);
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation ends before its start start={} end={}",
+                    startDate, endDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_END_DATE_BEFORE_START_DATE);
         }
-        if (startDate.isBefore(LocalDateTime.now())) {
-            logger.error("Reservation ({}) start date is in the past", calendarEntry);
+        if (startDate.isBefore(calendarClock.now())) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation starts in the past start={}", startDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_START_DATE_MUST_BE_IN_FUTURE);
         }
 
-        final LocalDateTime lastDayOfWeek =
-                LocalTime.MAX.atDate(startDate.with(ChronoField.DAY_OF_WEEK, DayOfWeek.FRIDAY.getValue()).toLocalDate());
-
-        if (startDate.isAfter(lastDayOfWeek)) {
-            logger.error("Reservation ({}) start date is not on a weekday!", calendarEntry);
+        if (startDate.isAfter(calendarClock.weekOf(startDate.toLocalDate()).end())) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation is not on a weekday start={}", startDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_MUST_BE_ON_WEEKDAY);
         }
     }
 
-    /** Contains the number of the first hour can be booked on a weekday. */
-    private static final int FIRST_HOUR_OF_WEEKDAY_ALLOWED = 9;
-    /** Contains the number of the last hour can be used to end a reservation on a weekday. */
-    private static final int LAST_HOUR_OF_WEEKDAY_ALLOWED = 17;
-
     /**
      * Checks is a reservation is withing the allowed time frame in a day.
      * @param calendarEntry New calendar entry object
      */
     private void checkReservationTimeWithinDay(final CalendarEntry calendarEntry) {
-        if (calendarEntry.getStartDate().getHour() < FIRST_HOUR_OF_WEEKDAY_ALLOWED) {
-            logger.error("Reservation ({}) start date is before allowed ({}:00) time within a weekday!", calendarEntry,
-                    FIRST_HOUR_OF_WEEKDAY_ALLOWED);
+        if (calendarEntry.getStartDate().getHour() < ReservationConstants.FIRST_HOUR_OF_WEEKDAY_ALLOWED) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation starts before opening start={}",
+                    calendarEntry.getStartDate());
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_MUST_START_AFTER_9AM);
         }
-        if (calendarEntry.getEndDate().getHour() > LAST_HOUR_OF_WEEKDAY_ALLOWED) {
-            logger.error("Reservation ({}) end date is after allowed ({}:00) time within a weekday!", calendarEntry,
-                    LAST_HOUR_OF_WEEKDAY_ALLOWED);
+        if (calendarEntry.getEndDate().getHour() > ReservationConstants.LAST_HOUR_OF_WEEKDAY_ALLOWED) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation ends after closing end={}",
+                    calendarEntry.getEndDate());
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_MUST_END_BEFORE_5PM);
         }
     }
 
-    /** Shortest reservation length in minutes. */
-    private static final int RESERVATION_SLOT_SIZE = 30;
-    /** Maximal number of time slots to be booked in one reservation. */
-    private static final int MAX_TIME_SLOTS_PER_RESERVATION = 6;
     /** Number helping to determine if reservation starts at a proper time (hh:00 or hh:30). */
     private static final int MIN_OF_TIME_ALLOWED = 30;
 
@@ -190,22 +340,23 @@ public class ReservationController {
         final LocalDateTime endDate = calendarEntry.getEndDate();
         final Duration reservationDuration = Duration.between(startDate, endDate);
         final long reservationLengthInMinutes = reservationDuration.toMinutes();
-        if (reservationLengthInMinutes / RESERVATION_SLOT_SIZE <= 0) {
-            logger.error("Reservation ({}) length ({} min) should be at least {} minutes!", calendarEntry,
-                    reservationLengthInMinutes, RESERVATION_SLOT_SIZE);
+        if (reservationLengthInMinutes / ReservationConstants.RESERVATION_SLOT_SIZE <= 0) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation is too short start={} end={}", startDate,
+                    endDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_LENGTH_AT_LEAST_30MIN);
         }
-        if (reservationLengthInMinutes / RESERVATION_SLOT_SIZE > MAX_TIME_SLOTS_PER_RESERVATION) {
-            logger.error("Reservation ({}) length ({} min) is too long!", calendarEntry, reservationLengthInMinutes);
+        if (reservationLengthInMinutes / ReservationConstants.RESERVATION_SLOT_SIZE > ReservationConstants.MAX_TIME_SLOTS_PER_RESERVATION) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation is too long start={} end={}", startDate,
+                    endDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_LENGTH_MAX_3HOURS);
         }
-        if (reservationLengthInMinutes % RESERVATION_SLOT_SIZE != 0) {
-            logger.error("Reservation ({}) length ({} min) should be dividable by {} minutes!", calendarEntry,
-                    reservationLengthInMinutes, RESERVATION_SLOT_SIZE);
+        if (reservationLengthInMinutes % ReservationConstants.RESERVATION_SLOT_SIZE != 0) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation is not whole slots start={} end={}", startDate,
+                    endDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_30MIN_SLOTS_ONLY);
         }
         if (startDate.getMinute() % MIN_OF_TIME_ALLOWED != 0) {
-            logger.error("Reservation ({}) start date should be 00 or 30 minutes!", calendarEntry);
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation is not on the slot grid start={}", startDate);
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_START_AT_00MIN_OR_30MIN_ONLY);
         }
     }
@@ -215,78 +366,79 @@ public class ReservationController {
      * @param calendarEntry New calendar entry object
      */
     private void checkReservationOverlapping(final CalendarEntry calendarEntry) {
-        final long overlappingEntriesCount = calendarEntryRepository.countOverlapping(calendarEntry.getStartDate(),
+        final long overlappingEntriesCount = calendarEntryStore.countOverlapping(calendarEntry.getStartDate(),
                 calendarEntry.getEndDate());
         if (overlappingEntriesCount > 0) {
-            logger.error("Reservation ({}) overlaps with {} existing reversion(s)!", calendarEntry, overlappingEntriesCount);
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation overlaps existing ones start={} end={}",
+                    calendarEntry.getStartDate(), calendarEntry.getEndDate());
             throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_DATES_OVERLAPPING_WITH_EXISTING_RESERVATION);
         }
     }
 
     /**
-     * Finds all open slots in the calendar for a given day.
-     * @param day Day to be checked for open slots
-     * @return List of open slots within the given day
+     * Checks if a new reservation would take slots awaited by reservations on the waitlist. These slots are allocated
+     * to the waiting reservations, even right after their reservation was cancelled.
+     * @param calendarEntry New calendar entry object
      */
-    private List<OpenSlotDTO> listOpenSlotsForDay(final LocalDateTime day) {
-        if (day.getDayOfWeek().getValue() > DayOfWeek.FRIDAY.getValue()) {
-            throw new ValidationException("Today is not weekday, reservation is not available!");
+    private void checkReservationNotAwaited(final CalendarEntry calendarEntry) {
+        if (waitlistService.hasWaiters(calendarEntry.getStartDate(), calendarEntry.getEndDate())) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation dates are awaited start={} end={}",
+                    calendarEntry.getStartDate(), calendarEntry.getEndDate());
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_DATES_AWAITED_ON_WAITLIST);
         }
+    }
 
-        LocalDateTime dailyStartDate = day.truncatedTo(ChronoUnit.MINUTES);
-        if (dailyStartDate.getHour() < FIRST_HOUR_OF_WEEKDAY_ALLOWED) {
-            logger.debug("Modifying the hour value of the opening date ({}) to be the first allowed value ({}) for a weekday",
-                    dailyStartDate, FIRST_HOUR_OF_WEEKDAY_ALLOWED);
-            dailyStartDate = dailyStartDate.withHour(FIRST_HOUR_OF_WEEKDAY_ALLOWED);
-        }
-        if (dailyStartDate.getMinute() > 0 && dailyStartDate.getMinute() <= HALF_OF_HOUR_IN_MINUTES) {
-            logger.debug("Modifying the minutes value of the opening date ({}) to be the half of an hour ({})",
-                    dailyStartDate, HALF_OF_HOUR_IN_MINUTES);
-            dailyStartDate = dailyStartDate.withMinute(HALF_OF_HOUR_IN_MINUTES);
-        } else if (dailyStartDate.getMinute() > HALF_OF_HOUR_IN_MINUTES) {
-            logger.debug("Modifying the minutes value of the opening date ({}) to be the at the start of the next hour",
-                    dailyStartDate);
-            dailyStartDate = dailyStartDate.withHour(dailyStartDate.getHour() + 1).withMinute(0);
+    /**
+     * Checks if the given date is on a weekday.
+     * @param date Date to be checked
+     */
+    private void checkIsWeekday(final LocalDateTime date) {
+        if (date.getDayOfWeek().getValue() > DayOfWeek.FRIDAY.getValue()) {
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_TODAY_IS_NOT_WEEKDAY);
         }
+    }
 
-        final LocalDateTime dailyEndDate = dailyStartDate.withHour(LAST_HOUR_OF_WEEKDAY_ALLOWED).withMinute(0);
-        logger.debug("Setting daily ending date to {}", dailyEndDate);
-
-        final List<CalendarEntry> calendarEntriesToday =
-                calendarEntryRepository.findByStartDateBetweenOrderByStartDateAsc(dailyStartDate, dailyEndDate);
-        logger.debug("Fetched {} calendar entries betweek daily opening ({} and ending ({}) dates",
-                calendarEntriesToday.size(), dailyStartDate, dailyEndDate);
-        final Map<LocalDateTime, CalendarEntry> calendarEntryMap = calendarEntriesToday.stream()
-                .collect(Collectors.toMap(CalendarEntry::getStartDate, calendarEntry -> calendarEntry));
+    /**
+     * Checks if an idempotency key sent by the caller is valid.
+     * @param idempotencyKey Idempotency key
+     */
+    private void checkIdempotencyKey(final String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > ReservationConstants.MAX_IDEMPOTENCY_KEY_LENGTH) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Invalid idempotencyKey={}", idempotencyKey);
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_IDEMPOTENCY_KEY_INVALID);
+        }
+    }
 
-        LocalDateTime lastOpenSlotDate = null;
-        LocalDateTime currentCheckedDate = dailyStartDate;
-        final List<OpenSlotDTO> openSlotsOfDay = new ArrayList<>();
-        while (!currentCheckedDate.isAfter(dailyEndDate)) {
-            if (calendarEntryMap.containsKey(currentCheckedDate)) {
-                if (lastOpenSlotDate != null) {
-                    final OpenSlotDTO openSlotDTO = new OpenSlotDTO();
-                    openSlotDTO.setSlotStartDate(lastOpenSlotDate);
-                    openSlotDTO.setSlotEndDate(currentCheckedDate);
-                    openSlotsOfDay.add(openSlotDTO);
-                    logger.debug("Found a new open slot: {}", openSlotDTO);
-                    lastOpenSlotDate = null;
-                }
-                final CalendarEntry calendarEntry = calendarEntryMap.get(currentCheckedDate);
-                currentCheckedDate = calendarEntry.getEndDate();
-            } else {
-                if (lastOpenSlotDate != null) {
-                    final OpenSlotDTO openSlotDTO = new OpenSlotDTO();
-                    openSlotDTO.setSlotStartDate(lastOpenSlotDate);
-                    openSlotDTO.setSlotEndDate(currentCheckedDate);
-                    openSlotsOfDay.add(openSlotDTO);
-                    logger.debug("Found a new open slot: {}", openSlotDTO);
-                }
-                lastOpenSlotDate = currentCheckedDate;
-                currentCheckedDate = currentCheckedDate.plusMinutes(RESERVATION_SLOT_SIZE);
-            }
+    /**
+     * Returns the reservation created by an earlier request sent with the same idempotency key.
+     * @param previousResult Reservation created by the earlier request
+     * @param calendarEntry Reservation requested by the repeated request
+     * @return The reservation created by the earlier request
+     * @throws IdempotencyKeyReusedException If the repeated request asks for a different reservation
+     */
+    private CalendarEntry replayPreviousResult(final CalendarEntry previousResult, final CalendarEntry calendarEntry) {
+        if (!idempotencyStore.isSameRequest(previousResult, calendarEntry)) {
+            logger.info(LogMarkers.RESERVATION_REJECTED, "Idempotency key reused for other dates start={} end={}",
+                    calendarEntry.getStartDate(), calendarEntry.getEndDate());
+            throw new IdempotencyKeyReusedException(ValidationErrorMessages.ERROR_IDEMPOTENCY_KEY_REUSED);
         }
+        return previousResult;
+    }
 
-        return openSlotsOfDay;
+    /**
+     * Checks if a date range requested by the caller is valid.
+     * @param from First day of the range
+     * @param to Last day of the range (inclusive)
+     * @param marker Marker of the endpoint the range was requested from, used when logging a rejection
+     */
+    private void checkDateRange(final LocalDate from, final LocalDate to, final Marker marker) {
+        if (from.isAfter(to)) {
+            logger.info(marker, "Date range ends before its start from={} to={}", from, to);
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RANGE_END_BEFORE_START);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= ReservationConstants.MAX_DAYS_PER_RANGE_QUERY) {
+            logger.info(marker, "Date range is too long from={} to={}", from, to);
+            throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_RANGE_TOO_LONG);
+        }
     }
 }
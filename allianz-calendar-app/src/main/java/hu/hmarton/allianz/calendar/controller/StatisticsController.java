@@ -0,0 +1,71 @@
+package hu.hmarton.allianz.calendar.controller;
+
+import hu.hmarton.allianz.calendar.admission.AdmissionControlFilter;
+import hu.hmarton.allianz.calendar.dto.AdmissionStatisticsDTO;
+import hu.hmarton.allianz.calendar.dto.CacheRegionStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * REST controller class exposing runtime statistics of the application.
+ */
+@RestController
+public class StatisticsController {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(StatisticsController.class);
+    /** {@link EntityManagerFactory} bean. */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    /** {@link AdmissionControlFilter} bean. */
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    /**
+     * Lists the statistics of all Hibernate second-level and query cache regions.
+     * @return List of cache region statistics, ordered by region name
+     */
+    @GetMapping(value = "/statistics/cache")
+    public List<CacheRegionStatisticsDTO> listCacheRegionStatistics() {
+        logger.info("Listing second-level cache region statistics");
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        final List<CacheRegionStatisticsDTO> regionStatisticsList = new ArrayList<>(regionNames.length);
+        for (final String regionName : regionNames) {
+            final CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics == null) {
+                continue;
+            }
+            final CacheRegionStatisticsDTO regionStatisticsDTO = new CacheRegionStatisticsDTO();
+            regionStatisticsDTO.setRegionName(regionStatistics.getRegionName());
+            regionStatisticsDTO.setPutCount(regionStatistics.getPutCount());
+            regionStatisticsDTO.setHitCount(regionStatistics.getHitCount());
+            regionStatisticsDTO.setMissCount(regionStatistics.getMissCount());
+            regionStatisticsDTO.setElementCountInMemory(regionStatistics.getElementCountInMemory());
+            regionStatisticsList.add(regionStatisticsDTO);
+        }
+        return regionStatisticsList;
+    }
+
+    /**
+     * Returns the statistics of the admission control of the reservation endpoints, including the load shed.
+     * @return Admission statistics
+     */
+    @GetMapping(value = "/statistics/admission")
+    public AdmissionStatisticsDTO getAdmissionStatistics() {
+        logger.info("Getting admission control statistics");
+        return admissionControlFilter.getStatistics();
+    }
+}
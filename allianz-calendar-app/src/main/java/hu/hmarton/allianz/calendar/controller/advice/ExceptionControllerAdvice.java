@@ -1,6 +1,8 @@
 package hu.hmarton.allianz.calendar.controller.advice;
 
+import hu.hmarton.allianz.calendar.exc.IdempotencyKeyReusedException;
 import hu.hmarton.allianz.calendar.exc.ValidationException;
+import hu.hmarton.allianz.calendar.exc.WaitlistFullException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -29,6 +31,33 @@ public class ExceptionControllerAdvice {
         return validationException.getMessage();
     }
 
+    /**
+     * Handles {@link IdempotencyKeyReusedException} objects thrown by REST interfaces. The request itself may be valid,
+     * but it can't be processed with the idempotency key it was sent with.
+     * @param idempotencyKeyReusedException Exception object
+     * @return Error message displayed for the caller
+     */
+    @ResponseBody
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public String handleIdempotencyKeyReusedException(
+            final IdempotencyKeyReusedException idempotencyKeyReusedException) {
+        return idempotencyKeyReusedException.getMessage();
+    }
+
+    /**
+     * Handles {@link WaitlistFullException} objects thrown by REST interfaces. The request is valid, so it's answered
+     * as a temporary overload instead of a client error.
+     * @param waitlistFullException Exception object
+     * @return Error message displayed for the caller
+     */
+    @ResponseBody
+    @ExceptionHandler(WaitlistFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleWaitlistFullException(final WaitlistFullException waitlistFullException) {
+        return waitlistFullException.getMessage();
+    }
+
     /**
      * Handles validation exceptions thrown by bean validation using entity-level annotations.
      * @param exception Exception object
@@ -0,0 +1,66 @@
+package hu.hmarton.allianz.calendar.dto;
+
+import java.io.Serializable;
+import java.util.StringJoiner;
+
+/** Data class representing the statistics of the admission control of the reservation endpoints. */
+public class AdmissionStatisticsDTO implements Serializable {
+    /** Number of requests admitted. */
+    private long admittedCount;
+    /** Number of requests rejected by the rate limit of their client. */
+    private long rateLimitedCount;
+    /** Number of requests rejected because too many requests were processed. */
+    private long concurrencyLimitedCount;
+    /** Number of requests currently processed. */
+    private long inProgressCount;
+    /** Approximate number of clients whose rate is tracked. */
+    private long trackedClientCount;
+
+    public long getAdmittedCount() {
+        return admittedCount;
+    }
+
+    public void setAdmittedCount(final long admittedCount) {
+        this.admittedCount = admittedCount;
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+
+    public void setRateLimitedCount(final long rateLimitedCount) {
+        this.rateLimitedCount = rateLimitedCount;
+    }
+
+    public long getConcurrencyLimitedCount() {
+        return concurrencyLimitedCount;
+    }
+
+    public void setConcurrencyLimitedCount(final long concurrencyLimitedCount) {
+        this.concurrencyLimitedCount = concurrencyLimitedCount;
+    }
+
+    public long getInProgressCount() {
+        return inProgressCount;
+    }
+
+    public void setInProgressCount(final long inProgressCount) {
+        this.inProgressCount = inProgressCount;
+    }
+
+    public long getTrackedClientCount() {
+        return trackedClientCount;
+    }
+
+    public void setTrackedClientCount(final long trackedClientCount) {
+        this.trackedClientCount = trackedClientCount;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", AdmissionStatisticsDTO.class.getSimpleName() + "[", "]")
+                .add("admittedCount=" + admittedCount).add("rateLimitedCount=" + rateLimitedCount)
+                .add("concurrencyLimitedCount=" + concurrencyLimitedCount).add("inProgressCount=" + inProgressCount)
+                .add("trackedClientCount=" + trackedClientCount).toString();
+    }
+}
@@ -0,0 +1,65 @@
+package hu.hmarton.allianz.calendar.dto;
+
+import java.io.Serializable;
+import java.util.StringJoiner;
+
+/** Data class representing the statistics of a Hibernate second-level or query cache region. */
+public class CacheRegionStatisticsDTO implements Serializable {
+    /** Name of the cache region. */
+    private String regionName;
+    /** Number of entries put into the region. */
+    private long putCount;
+    /** Number of successful lookups in the region. */
+    private long hitCount;
+    /** Number of unsuccessful lookups in the region. */
+    private long missCount;
+    /** Number of entries currently held in memory, or a negative value if the provider doesn't support it. */
+    private long elementCountInMemory;
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public void setRegionName(final String regionName) {
+        this.regionName = regionName;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public void setPutCount(final long putCount) {
+        this.putCount = putCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(final long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(final long missCount) {
+        this.missCount = missCount;
+    }
+
+    public long getElementCountInMemory() {
+        return elementCountInMemory;
+    }
+
+    public void setElementCountInMemory(final long elementCountInMemory) {
+        this.elementCountInMemory = elementCountInMemory;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CacheRegionStatisticsDTO.class.getSimpleName() + "[", "]")
+                .add("regionName='" + regionName + "'").add("putCount=" + putCount).add("hitCount=" + hitCount)
+                .add("missCount=" + missCount).add("elementCountInMemory=" + elementCountInMemory).toString();
+    }
+}
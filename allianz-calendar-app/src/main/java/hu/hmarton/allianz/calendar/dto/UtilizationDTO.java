@@ -0,0 +1,102 @@
+package hu.hmarton.allianz.calendar.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+/**
+ * Data class representing the utilization of the calendar within a date range. The buckets of every weekday in the
+ * range are encoded one day after the other in {@link #data} as a base64 string. With {@code slot} granularity every
+ * day takes two bytes, one bit per slot (most significant bit first), set if the slot is occupied. With {@code hour}
+ * and {@code day} granularity every bucket takes one byte holding the number of occupied slots.
+ */
+public class UtilizationDTO implements Serializable {
+    /** First day of the range. */
+    private LocalDate from;
+    /** Last day of the range (inclusive). */
+    private LocalDate to;
+    /** Granularity of the buckets. */
+    private String granularity;
+    /** Number of weekdays encoded. */
+    private int dayCount;
+    /** Number of buckets per day. */
+    private int bucketsPerDay;
+    /** Length of one bucket in minutes. */
+    private int bucketMinutes;
+    /** Total number of occupied slots within the range. */
+    private long occupiedSlotCount;
+    /** Base64 encoded buckets. */
+    private String data;
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(final LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(final LocalDate to) {
+        this.to = to;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(final String granularity) {
+        this.granularity = granularity;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public void setDayCount(final int dayCount) {
+        this.dayCount = dayCount;
+    }
+
+    public int getBucketsPerDay() {
+        return bucketsPerDay;
+    }
+
+    public void setBucketsPerDay(final int bucketsPerDay) {
+        this.bucketsPerDay = bucketsPerDay;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    public void setBucketMinutes(final int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    public long getOccupiedSlotCount() {
+        return occupiedSlotCount;
+    }
+
+    public void setOccupiedSlotCount(final long occupiedSlotCount) {
+        this.occupiedSlotCount = occupiedSlotCount;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(final String data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", UtilizationDTO.class.getSimpleName() + "[", "]").add("from=" + from)
+                .add("to=" + to).add("granularity='" + granularity + "'").add("dayCount=" + dayCount)
+                .add("bucketsPerDay=" + bucketsPerDay).add("bucketMinutes=" + bucketMinutes)
+                .add("occupiedSlotCount=" + occupiedSlotCount).add("data='" + data + "'").toString();
+    }
+}
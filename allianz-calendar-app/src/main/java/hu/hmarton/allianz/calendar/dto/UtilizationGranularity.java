@@ -0,0 +1,46 @@
+package hu.hmarton.allianz.calendar.dto;
+
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+
+/** Granularity of the buckets a utilization report is built of. */
+public enum UtilizationGranularity {
+    /** One bit per reservation slot, set if the slot is occupied. */
+    SLOT("slot", ReservationConstants.RESERVATION_SLOT_SIZE),
+    /** Number of occupied slots per hour. */
+    HOUR("hour", 60),
+    /** Number of occupied slots per day. */
+    DAY("day", (ReservationConstants.LAST_HOUR_OF_WEEKDAY_ALLOWED
+            - ReservationConstants.FIRST_HOUR_OF_WEEKDAY_ALLOWED) * 60);
+
+    /** Value used by the callers to select the granularity. */
+    private final String value;
+    /** Length of one bucket in minutes. */
+    private final int bucketMinutes;
+
+    UtilizationGranularity(final String value, final int bucketMinutes) {
+        this.value = value;
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    /**
+     * Returns the granularity selected by the given value.
+     * @param value Value used by the caller
+     * @return Granularity, or {@code null} if no granularity belongs to the value
+     */
+    public static UtilizationGranularity fromValue(final String value) {
+        for (final UtilizationGranularity granularity : values()) {
+            if (granularity.value.equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+}
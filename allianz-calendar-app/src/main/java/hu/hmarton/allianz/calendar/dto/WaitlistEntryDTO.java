@@ -0,0 +1,77 @@
+package hu.hmarton.allianz.calendar.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+/** Data class representing a reservation request on the waitlist. */
+public class WaitlistEntryDTO implements Serializable {
+    /** Identifier of the waitlist entry, increasing in the order the requests arrived. */
+    private long id;
+    /** Name of the person requested the reservation. */
+    private String bookingPersonName;
+    /** Start date of the requested reservation. */
+    private LocalDateTime startDate;
+    /** End date of the requested reservation. */
+    private LocalDateTime endDate;
+    /** Status of the request. */
+    private WaitlistStatus status;
+    /** Identifier of the reservation created for the request, if it was allocated. */
+    private Long calendarEntryId;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public String getBookingPersonName() {
+        return bookingPersonName;
+    }
+
+    public void setBookingPersonName(final String bookingPersonName) {
+        this.bookingPersonName = bookingPersonName;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(final LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(final LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(final WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public Long getCalendarEntryId() {
+        return calendarEntryId;
+    }
+
+    public void setCalendarEntryId(final Long calendarEntryId) {
+        this.calendarEntryId = calendarEntryId;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", WaitlistEntryDTO.class.getSimpleName() + "[", "]")
+                .add("id=" + id).add("bookingPersonName='" + bookingPersonName + "'").add("startDate=" + startDate)
+                .add("endDate=" + endDate).add("status=" + status).add("calendarEntryId=" + calendarEntryId)
+                .toString();
+    }
+}
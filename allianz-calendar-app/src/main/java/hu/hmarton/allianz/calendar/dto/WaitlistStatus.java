@@ -0,0 +1,11 @@
+package hu.hmarton.allianz.calendar.dto;
+
+/** Status of a reservation request on the waitlist. */
+public enum WaitlistStatus {
+    /** The requested slots are occupied, the request waits for them to be released. */
+    WAITING,
+    /** The requested slots were reserved for the request. */
+    ALLOCATED,
+    /** The requested slots started before they were released. */
+    EXPIRED
+}
@@ -0,0 +1,15 @@
+package hu.hmarton.allianz.calendar.exc;
+
+/**
+ * Exception thrown when an idempotency key is sent again with a request asking for a different reservation than the
+ * one created by the first request sent with the key.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    /**
+     * Constructor.
+     * @param message Error message
+     */
+    public IdempotencyKeyReusedException(final String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package hu.hmarton.allianz.calendar.exc;
 
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+
 /**
  * Class containing static references to all validation exception error messages.
  */
@@ -27,4 +29,31 @@ public final class ValidationErrorMessages {
 
     public static final String VALIDATION_ERROR_DATES_OVERLAPPING_WITH_EXISTING_RESERVATION = "Reservation dates "
             + "overlapping with existing reservation(s)!";
+
+    public static final String VALIDATION_ERROR_TODAY_IS_NOT_WEEKDAY = "Today is not weekday, reservation is not available!";
+
+    public static final String VALIDATION_ERROR_RANGE_END_BEFORE_START = "Range start date must not be after its end date!";
+
+    public static final String VALIDATION_ERROR_RANGE_TOO_LONG = "Date range can't be longer than "
+            + ReservationConstants.MAX_DAYS_PER_RANGE_QUERY + " days!";
+
+    public static final String VALIDATION_ERROR_UNKNOWN_GRANULARITY = "Granularity must be one of slot, hour or day!";
+
+    public static final String VALIDATION_ERROR_IDEMPOTENCY_KEY_INVALID = "Idempotency key must not be blank or longer "
+            + "than " + ReservationConstants.MAX_IDEMPOTENCY_KEY_LENGTH + " characters!";
+
+    public static final String ERROR_IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different "
+            + "reservation!";
+
+    public static final String VALIDATION_ERROR_RESERVATION_NOT_FOUND = "Reservation doesn't exist!";
+
+    public static final String VALIDATION_ERROR_WAITLIST_ENTRY_NOT_FOUND = "Waitlist entry doesn't exist!";
+
+    public static final String VALIDATION_ERROR_WAITLIST_DUPLICATE = "The same reservation is already waiting on the "
+            + "waitlist!";
+
+    public static final String VALIDATION_ERROR_DATES_AWAITED_ON_WAITLIST = "Reservation dates are awaited by "
+            + "reservation(s) on the waitlist!";
+
+    public static final String ERROR_WAITLIST_FULL = "Waitlist is full, try again later!";
 }
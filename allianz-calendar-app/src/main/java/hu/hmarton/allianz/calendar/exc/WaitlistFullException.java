@@ -0,0 +1,15 @@
+package hu.hmarton.allianz.calendar.exc;
+
+/**
+ * Exception thrown when the waitlist has no room for a new waiting request. Unlike a {@link ValidationException},
+ * the request itself is valid and can be retried later.
+ */
+public class WaitlistFullException extends RuntimeException {
+    /**
+     * Constructor.
+     * @param message Error message
+     */
+    public WaitlistFullException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package hu.hmarton.allianz.calendar.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback converter writing the formatted message of an event escaped for a double-quoted {@code key="value"} field.
+ * Quotes and backslashes are escaped and line breaks and other control characters are encoded, so values coming
+ * from requests can't end the field or forge new log lines. Registered as {@code %escapedMsg} in
+ * {@code logback-spring.xml}.
+ */
+public class EscapedMessageConverter extends ClassicConverter {
+    /** Hexadecimal digits used to encode control characters. */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String convert(final ILoggingEvent event) {
+        return escape(event.getFormattedMessage());
+    }
+
+    /**
+     * Escapes a message for a double-quoted field.
+     * @param message Message to be escaped
+     * @return Escaped message, the same instance if nothing had to be escaped
+     */
+    public static String escape(final String message) {
+        if (message == null) {
+            return "";
+        }
+        int index = 0;
+        while (index < message.length() && !needsEscaping(message.charAt(index))) {
+            index++;
+        }
+        if (index == message.length()) {
+            return message;
+        }
+        final StringBuilder escaped = new StringBuilder(message.length() + 16).append(message, 0, index);
+        for (; index < message.length(); index++) {
+            final char character = message.charAt(index);
+            switch (character) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (needsEscaping(character)) {
+                        escaped.append("\\u00").append(HEX_DIGITS[character >> 4 & 0xF])
+                                .append(HEX_DIGITS[character & 0xF]);
+                    } else {
+                        escaped.append(character);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Returns whether a character has to be escaped.
+     * @param character Character of the message
+     * @return {@code true} for quotes, backslashes and control characters
+     */
+    private static boolean needsEscaping(final char character) {
+        return character == '"' || character == '\\' || character < ' ' || character == '\u007f';
+    }
+}
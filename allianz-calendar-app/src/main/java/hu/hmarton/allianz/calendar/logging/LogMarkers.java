@@ -0,0 +1,33 @@
+package hu.hmarton.allianz.calendar.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * SLF4J markers of the log events written by the REST endpoints. The markers identify the endpoint in the structured
+ * log lines and select the events sampled by {@link SamplingTurboFilter}.
+ */
+public final class LogMarkers {
+    /** Marker of the events of reservation creation. */
+    public static final Marker RESERVATION_CREATE = MarkerFactory.getMarker("RESERVATION_CREATE");
+    /** Marker of the events of reservation cancellation. */
+    public static final Marker RESERVATION_CANCEL = MarkerFactory.getMarker("RESERVATION_CANCEL");
+    /** Marker of the events of the waitlist endpoints. */
+    public static final Marker WAITLIST = MarkerFactory.getMarker("WAITLIST");
+    /** Marker of the events of reservation requests rejected by validation. */
+    public static final Marker RESERVATION_REJECTED = MarkerFactory.getMarker("RESERVATION_REJECTED");
+    /** Marker of the events of the weekly schedule endpoint. */
+    public static final Marker WEEKLY_SCHEDULE = MarkerFactory.getMarker("WEEKLY_SCHEDULE");
+    /** Marker of the events of the free hours endpoints. */
+    public static final Marker FREE_HOURS = MarkerFactory.getMarker("FREE_HOURS");
+    /** Marker of the events of the utilization endpoint. */
+    public static final Marker UTILIZATION = MarkerFactory.getMarker("UTILIZATION");
+    /** Marker of the events of the person name lookup endpoint. */
+    public static final Marker PERSON_NAME_BY_DATE = MarkerFactory.getMarker("PERSON_NAME_BY_DATE");
+
+    /**
+     * Hidden constructor.
+     */
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,68 @@
+package hu.hmarton.allianz.calendar.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter passing only every n-th enabled event of the configured markers, counted separately per
+ * marker. Events without a marker, events of other markers and events of {@link Level#WARN} or higher are never
+ * dropped. Configured in {@code logback-spring.xml} by the {@code sampleRate} and the repeated {@code marker}
+ * elements.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    /** Names of the markers sampled. */
+    private final Set<String> markerNames = new HashSet<>();
+    /** Event counters by marker name, filled on start and read only afterwards. */
+    private final Map<String, AtomicLong> eventCounters = new HashMap<>();
+    /** Every n-th event is passed, 1 passes all events. */
+    private int sampleRate = 1;
+
+    /**
+     * Adds a marker to be sampled.
+     * @param markerName Name of the marker
+     */
+    public void addMarker(final String markerName) {
+        markerNames.add(markerName);
+    }
+
+    /**
+     * Sets the sample rate.
+     * @param sampleRate Every n-th event is passed
+     */
+    public void setSampleRate(final int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void start() {
+        if (sampleRate < 1) {
+            addError("Sample rate must be positive, got " + sampleRate);
+            return;
+        }
+        markerNames.forEach(markerName -> eventCounters.put(markerName, new AtomicLong()));
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+                              final Object[] params, final Throwable throwable) {
+        if (marker == null || sampleRate == 1 || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        final AtomicLong eventCounter = eventCounters.get(marker.getName());
+        if (eventCounter == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return eventCounter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -1,5 +1,7 @@
 package hu.hmarton.allianz.calendar.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,15 +9,24 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.StringJoiner;
 
 /**
- * Calendar entry created by a person.
+ * Calendar entry created by a person. Entities are kept in the {@value #CACHE_REGION} second-level cache region.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CalendarEntry.CACHE_REGION)
 public class CalendarEntry {
+    /** Name of the second-level cache region holding {@link CalendarEntry} entities. */
+    public static final String CACHE_REGION = "calendarEntry";
+    /** Name of the query cache region holding results of {@link CalendarEntry} queries. */
+    public static final String QUERY_CACHE_REGION = "calendarEntryQueries";
+
     /** Unique identifier. */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -31,6 +42,10 @@ public class CalendarEntry {
     @NotNull(message = "Reservation end date is mandatory")
     @Column(columnDefinition = "TIMESTAMP")
     private LocalDateTime endDate;
+    /** Idempotency key sent by the caller created the reservation, if any. */
+    @JsonIgnore
+    @Column(unique = true, length = ReservationConstants.MAX_IDEMPOTENCY_KEY_LENGTH)
+    private String idempotencyKey;
 
     public long getId() {
         return id;
@@ -64,6 +79,14 @@ public class CalendarEntry {
         this.endDate = endDate != null ? LocalDateTime.from(endDate) : null;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(final String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", CalendarEntry.class.getSimpleName() + "[", "]")
@@ -0,0 +1,101 @@
+package hu.hmarton.allianz.calendar.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+/**
+ * Event about a reservation change, written to the outbox in the same transaction as the change itself. The event
+ * stays unpublished until the relay marks it as published.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_event_published_at", columnList = "publishedAt"))
+public class OutboxEvent {
+    /** Event type of a newly created reservation. */
+    public static final String RESERVATION_CREATED = "RESERVATION_CREATED";
+    /** Event type of a cancelled reservation. */
+    public static final String RESERVATION_CANCELLED = "RESERVATION_CANCELLED";
+
+    /** Unique identifier, increasing in the order the events were created. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+    /** Type of the event. */
+    private String eventType;
+    /** Identifier of the {@link CalendarEntry} the event is about. */
+    private long calendarEntryId;
+    /** JSON representation of the {@link CalendarEntry} after the change. */
+    @Lob
+    private String payload;
+    /** Date the event was created. */
+    @Column(columnDefinition = "TIMESTAMP")
+    private LocalDateTime createdAt;
+    /** Date the event was published, or {@code null} if it wasn't published yet. Not sent to the sinks. */
+    @JsonIgnore
+    @Column(columnDefinition = "TIMESTAMP")
+    private LocalDateTime publishedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(final String eventType) {
+        this.eventType = eventType;
+    }
+
+    public long getCalendarEntryId() {
+        return calendarEntryId;
+    }
+
+    public void setCalendarEntryId(final long calendarEntryId) {
+        this.calendarEntryId = calendarEntryId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(final String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(final LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(final LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", OutboxEvent.class.getSimpleName() + "[", "]")
+                .add("id=" + id).add("eventType='" + eventType + "'").add("calendarEntryId=" + calendarEntryId)
+                .add("createdAt=" + createdAt).add("publishedAt=" + publishedAt).toString();
+    }
+}
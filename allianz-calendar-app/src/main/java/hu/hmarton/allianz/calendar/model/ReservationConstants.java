@@ -0,0 +1,27 @@
+package hu.hmarton.allianz.calendar.model;
+
+/**
+ * Class containing static references to the rules reservations must follow.
+ */
+public final class ReservationConstants {
+    /** Contains the number of the first hour can be booked on a weekday. */
+    public static final int FIRST_HOUR_OF_WEEKDAY_ALLOWED = 9;
+    /** Contains the number of the last hour can be used to end a reservation on a weekday. */
+    public static final int LAST_HOUR_OF_WEEKDAY_ALLOWED = 17;
+    /** Shortest reservation length in minutes. */
+    public static final int RESERVATION_SLOT_SIZE = 30;
+    /** Maximal number of time slots to be booked in one reservation. */
+    public static final int MAX_TIME_SLOTS_PER_RESERVATION = 6;
+    /** Number of bookable weekdays in a week. */
+    public static final int WEEKDAYS_PER_WEEK = 5;
+    /** Maximal number of days a date range query may span. */
+    public static final int MAX_DAYS_PER_RANGE_QUERY = 92;
+    /** Maximal length of an idempotency key sent by a caller. */
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    /**
+     * Hidden constructor.
+     */
+    private ReservationConstants() {
+    }
+}
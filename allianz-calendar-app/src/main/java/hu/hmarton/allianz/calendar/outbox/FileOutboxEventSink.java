@@ -0,0 +1,45 @@
+package hu.hmarton.allianz.calendar.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@link OutboxEventSink} appending the events to a local file, one JSON object per line. Enabled by
+ * {@code calendar.outbox.sink=file}; the file is set by {@code calendar.outbox.file-sink.path}.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.outbox.sink", havingValue = "file")
+public class FileOutboxEventSink implements OutboxEventSink {
+    /** {@link ObjectMapper} bean. */
+    @Autowired
+    private ObjectMapper objectMapper;
+    /** File the events are appended to. */
+    @Value("${calendar.outbox.file-sink.path:outbox/reservation-events.jsonl}")
+    private Path path;
+
+    @Override
+    public void publish(final List<OutboxEvent> outboxEvents) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            for (final OutboxEvent outboxEvent : outboxEvents) {
+                writer.write(objectMapper.writeValueAsString(outboxEvent));
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package hu.hmarton.allianz.calendar.outbox;
+
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@link OutboxEventSink} publishing the events to an in-process queue. Enabled by
+ * {@code calendar.outbox.sink=memory}, intended for tests and in-process consumers.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+    /** Queue of the published events. */
+    private final BlockingQueue<OutboxEvent> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void publish(final List<OutboxEvent> outboxEvents) {
+        queue.addAll(outboxEvents);
+    }
+
+    public BlockingQueue<OutboxEvent> getQueue() {
+        return queue;
+    }
+}
@@ -0,0 +1,18 @@
+package hu.hmarton.allianz.calendar.outbox;
+
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} publishes the outbox events to. Implementations are registered as beans.
+ */
+public interface OutboxEventSink {
+    /**
+     * Publishes a batch of events. If the method fails, the same events are published again by the next relay run.
+     * @param outboxEvents Events to be published, ordered by their identifier
+     * @throws IOException If the events couldn't be published
+     */
+    void publish(List<OutboxEvent> outboxEvents) throws IOException;
+}
@@ -0,0 +1,94 @@
+package hu.hmarton.allianz.calendar.outbox;
+
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import hu.hmarton.allianz.calendar.repository.OutboxEventRepository;
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Background relay publishing the outbox events to every {@link OutboxEventSink} bean in batches. Every event is
+ * marked as published only after all sinks accepted it, and the relay reads the events not marked yet, so every event
+ * is published at least once. An event whose transaction took its identifier earlier but committed later than the
+ * events after it is published by the next run, as it is still unmarked. Published events are deleted after the
+ * retention period.
+ */
+@Component
+public class OutboxRelay {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    /** {@link OutboxEventRepository} bean. */
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    /** All {@link OutboxEventSink} beans. */
+    @Autowired(required = false)
+    private List<OutboxEventSink> outboxEventSinks = List.of();
+    /** {@link CalendarClock} bean. */
+    @Autowired
+    private CalendarClock calendarClock;
+    /** Maximal number of events published in one batch. */
+    @Value("${calendar.outbox.batch-size:100}")
+    private int batchSize;
+    /** Time published events are kept for. */
+    @Value("${calendar.outbox.retention:PT24H}")
+    private Duration retention;
+
+    /**
+     * Publishes all events not yet published, batch by batch. Does nothing if no sink is configured.
+     * @return Number of events published
+     */
+    @Scheduled(fixedDelayString = "${calendar.outbox.relay-interval-ms:1000}",
+            initialDelayString = "${calendar.outbox.relay-interval-ms:1000}")
+    public synchronized int relay() {
+        if (outboxEventSinks.isEmpty()) {
+            return 0;
+        }
+        int publishedEventCount = 0;
+        List<OutboxEvent> outboxEvents;
+        do {
+            outboxEvents = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.ofSize(batchSize));
+            if (outboxEvents.isEmpty()) {
+                break;
+            }
+            try {
+                for (final OutboxEventSink outboxEventSink : outboxEventSinks) {
+                    outboxEventSink.publish(outboxEvents);
+                }
+            } catch (final IOException exception) {
+                logger.error("Publishing {} outbox events failed, retrying on next run", outboxEvents.size(), exception);
+                break;
+            }
+            outboxEventRepository.markPublished(outboxEvents.stream().map(OutboxEvent::getId).toList(),
+                    calendarClock.now());
+            publishedEventCount += outboxEvents.size();
+        } while (outboxEvents.size() == batchSize);
+
+        if (publishedEventCount > 0) {
+            logger.debug("Published {} outbox events", publishedEventCount);
+        }
+        return publishedEventCount;
+    }
+
+    /**
+     * Deletes the events published earlier than the retention period.
+     * @return Number of events deleted
+     */
+    @Scheduled(fixedDelayString = "${calendar.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${calendar.outbox.purge-interval-ms:3600000}")
+    public int purgePublished() {
+        final int deletedEventCount = outboxEventRepository.deletePublishedUntil(calendarClock.now().minus(retention));
+        if (deletedEventCount > 0) {
+            logger.debug("Deleted {} published outbox events", deletedEventCount);
+        }
+        return deletedEventCount;
+    }
+}
@@ -1,8 +1,11 @@
 package hu.hmarton.allianz.calendar.repository;
 
 import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -10,7 +13,9 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * Repository interface for managing {@link CalendarEntry} entities withing a database.
+ * Repository interface for managing {@link CalendarEntry} entities withing a database. Query results are cached in
+ * the {@value CalendarEntry#QUERY_CACHE_REGION} query cache region, which Hibernate invalidates whenever a
+ * {@link CalendarEntry} is written.
  */
 @Repository
 public interface CalendarEntryRepository extends JpaRepository<CalendarEntry, Long> {
@@ -20,6 +25,8 @@ public interface CalendarEntryRepository extends JpaRepository<CalendarEntry, Lo
      * @param closingDate Closing date value
      * @return List of {@link CalendarEntry} records withing the date range specified
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CalendarEntry.QUERY_CACHE_REGION)})
     List<CalendarEntry> findByStartDateBetweenOrderByStartDateAsc(LocalDateTime openingDate, LocalDateTime closingDate);
 
     /**
@@ -29,15 +36,26 @@ public interface CalendarEntryRepository extends JpaRepository<CalendarEntry, Lo
      * @param endDate End date of a reservation
      * @return Number of overlapping {@link CalendarEntry} records
      */
-    @Query(value = "SELECT count(*) FROM CalendarEntry WHERE (startDate<=?1 AND endDate>?1) OR "
-            + "(startDate<?2 AND endDate>=?2) OR (startDate<=?1 AND endDate>=?2)")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CalendarEntry.QUERY_CACHE_REGION)})
+    @Query(value = "SELECT count(*) FROM CalendarEntry WHERE startDate<?2 AND endDate>?1")
     long countOverlapping(LocalDateTime startDate, LocalDateTime endDate);
 
     /**
-     * Returns the {@link CalendarEntry} available at the specified date.
+     * Returns the {@link CalendarEntry} available at the specified date. Reservations are half-open intervals, so at
+     * the boundary of two adjacent reservations only the later one is returned.
      * @param date Date which should be included by a reservation
      * @return An {@link Optional} containing the result
      */
-    @Query(value = "SELECT ce FROM CalendarEntry ce WHERE startDate<=?1 AND endDate>=?1")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CalendarEntry.QUERY_CACHE_REGION)})
+    @Query(value = "SELECT ce FROM CalendarEntry ce WHERE startDate<=?1 AND endDate>?1")
     Optional<CalendarEntry> getByDate(LocalDateTime date);
+
+    /**
+     * Returns the {@link CalendarEntry} created by a request with the specified idempotency key.
+     * @param idempotencyKey Idempotency key sent by the caller
+     * @return An {@link Optional} containing the result
+     */
+    Optional<CalendarEntry> findByIdempotencyKey(String idempotencyKey);
 }
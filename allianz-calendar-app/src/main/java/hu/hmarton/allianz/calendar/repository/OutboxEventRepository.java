@@ -0,0 +1,47 @@
+package hu.hmarton.allianz.calendar.repository;
+
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link OutboxEvent} entities withing a database.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Returns the {@link OutboxEvent} records not published yet.
+     * @param pageable Size of the batch to be returned
+     * @return List of {@link OutboxEvent} records ordered by their identifier
+     */
+    List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Marks the specified {@link OutboxEvent} records as published.
+     * @param ids Identifiers of the published events
+     * @param publishedAt Date the events were published
+     * @return Number of events marked
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE OutboxEvent SET publishedAt=?2 WHERE id IN ?1")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    /**
+     * Deletes the {@link OutboxEvent} records published until the specified date.
+     * @param publishedUntil Last publication date of the events to be deleted
+     * @return Number of events deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM OutboxEvent WHERE publishedAt<=?1")
+    int deletePublishedUntil(LocalDateTime publishedUntil);
+}
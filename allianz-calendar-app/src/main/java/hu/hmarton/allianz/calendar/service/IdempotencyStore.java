@@ -0,0 +1,88 @@
+package hu.hmarton.allianz.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Service class remembering the results of reservation requests sent with an idempotency key. Recent results are
+ * held in a bounded, expiring in-memory cache; older ones are looked up by the key persisted with the
+ * {@link CalendarEntry}. The result also serves as the fingerprint of the request: a repeated request is only
+ * answered with it if it asks for the same person and dates.
+ */
+@Service
+public class IdempotencyStore {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    /** {@link CalendarEntryStore} bean. */
+    @Autowired
+    private CalendarEntryStore calendarEntryStore;
+    /** Recent results by their idempotency key. */
+    private final Cache<String, CalendarEntry> recentResults;
+
+    /**
+     * Constructor.
+     * @param maxEntries Maximal number of results held in memory
+     * @param expiration Time a result is held in memory after it was created
+     */
+    public IdempotencyStore(@Value("${calendar.idempotency.max-entries:10000}") final long maxEntries,
+                            @Value("${calendar.idempotency.expiration:PT24H}") final Duration expiration) {
+        this.recentResults = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(expiration).build();
+    }
+
+    /**
+     * Returns the result of an earlier request sent with the specified idempotency key.
+     * @param idempotencyKey Idempotency key sent by the caller
+     * @return An {@link Optional} containing the reservation created by the earlier request
+     */
+    public Optional<CalendarEntry> findPreviousResult(final String idempotencyKey) {
+        final CalendarEntry recentResult = recentResults.getIfPresent(idempotencyKey);
+        if (recentResult != null) {
+            return Optional.of(recentResult);
+        }
+        final Optional<CalendarEntry> persistedResult = calendarEntryStore.findByIdempotencyKey(idempotencyKey);
+        if (persistedResult.isPresent()) {
+            logger.debug("Found persisted result of idempotency key {}", idempotencyKey);
+            recentResults.put(idempotencyKey, persistedResult.get());
+        }
+        return persistedResult;
+    }
+
+    /**
+     * Returns whether a request asks for the same reservation as the earlier request which created a result.
+     * @param previousResult Reservation created by the earlier request
+     * @param calendarEntry Reservation requested by the repeated request, with its dates truncated like the result
+     * @return {@code true} if the person and the dates of both are equal
+     */
+    public boolean isSameRequest(final CalendarEntry previousResult, final CalendarEntry calendarEntry) {
+        return Objects.equals(previousResult.getBookingPersonName(), calendarEntry.getBookingPersonName())
+                && Objects.equals(previousResult.getStartDate(), calendarEntry.getStartDate())
+                && Objects.equals(previousResult.getEndDate(), calendarEntry.getEndDate());
+    }
+
+    /**
+     * Remembers the result of a request sent with an idempotency key.
+     * @param calendarEntry Reservation created by the request, holding the idempotency key
+     */
+    public void remember(final CalendarEntry calendarEntry) {
+        recentResults.put(calendarEntry.getIdempotencyKey(), calendarEntry);
+    }
+
+    /**
+     * Forgets the result of a request sent with an idempotency key, e.g. because the reservation was cancelled.
+     * @param idempotencyKey Idempotency key sent by the caller
+     */
+    public void forget(final String idempotencyKey) {
+        recentResults.invalidate(idempotencyKey);
+    }
+}
@@ -0,0 +1,183 @@
+package hu.hmarton.allianz.calendar.service;
+
+import hu.hmarton.allianz.calendar.dto.OpenSlotDTO;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Service class computing the open slots of the calendar. A whole date range is fetched by a single ordered query
+ * and the open slots of every day are found by one linear merge pass over the reservations of that day.
+ */
+@Service
+public class OpenSlotService {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(OpenSlotService.class);
+    /** {@link CalendarEntryStore} bean. */
+    @Autowired
+    private CalendarEntryStore calendarEntryStore;
+
+    /**
+     * Finds all open slots of the weekdays between the given date and time and the last day (inclusive). Open slots
+     * before the given date and time are not returned. Days are computed in parallel if the range spans more than
+     * a week.
+     * @param from Date and time the search starts from
+     * @param lastDay Last day of the search
+     * @return Open slots grouped by day, ordered by day. Weekdays without open slots have an empty list.
+     */
+    public SortedMap<LocalDate, List<OpenSlotDTO>> listOpenSlotsByDay(final LocalDateTime from, final LocalDate lastDay) {
+        final List<LocalDate> weekdays = listWeekdays(from.toLocalDate(), lastDay);
+        final SortedMap<LocalDate, List<OpenSlotDTO>> openSlotsByDay = new TreeMap<>();
+        if (weekdays.isEmpty()) {
+            return openSlotsByDay;
+        }
+
+        final List<List<CalendarEntry>> calendarEntriesByDay = fetchCalendarEntriesByDay(weekdays);
+        final IntStream dayIndexes = IntStream.range(0, weekdays.size());
+        final List<List<OpenSlotDTO>> openSlotsOfDays =
+                (weekdays.size() > ReservationConstants.WEEKDAYS_PER_WEEK ? dayIndexes.parallel() : dayIndexes)
+                        .mapToObj(dayIndex -> computeOpenSlots(openingOfDay(weekdays.get(dayIndex), from),
+                                closingOfDay(weekdays.get(dayIndex)), calendarEntriesByDay.get(dayIndex)))
+                        .toList();
+        for (int dayIndex = 0; dayIndex < weekdays.size(); dayIndex++) {
+            openSlotsByDay.put(weekdays.get(dayIndex), openSlotsOfDays.get(dayIndex));
+        }
+        return openSlotsByDay;
+    }
+
+    /**
+     * Fetches the reservations of the given weekdays by a single query and distributes them by day.
+     * @param weekdays Ordered, non-empty list of weekdays
+     * @return Reservations of each weekday, in the same order as the weekdays
+     */
+    public List<List<CalendarEntry>> fetchCalendarEntriesByDay(final List<LocalDate> weekdays) {
+        final LocalDateTime rangeStart = openingOfDay(weekdays.get(0), null);
+        final LocalDateTime rangeEnd = closingOfDay(weekdays.get(weekdays.size() - 1));
+        final List<CalendarEntry> calendarEntries =
+                calendarEntryStore.findByStartDateBetween(rangeStart, rangeEnd);
+        logger.debug("Fetched {} calendar entries between {} and {}", calendarEntries.size(), rangeStart, rangeEnd);
+
+        final List<List<CalendarEntry>> calendarEntriesByDay = new ArrayList<>(weekdays.size());
+        int entryIndex = 0;
+        for (final LocalDate weekday : weekdays) {
+            final int firstEntryIndexOfDay = entryIndex;
+            while (entryIndex < calendarEntries.size()
+                    && !calendarEntries.get(entryIndex).getStartDate().toLocalDate().isAfter(weekday)) {
+                entryIndex++;
+            }
+            calendarEntriesByDay.add(calendarEntries.subList(firstEntryIndexOfDay, entryIndex));
+        }
+        return calendarEntriesByDay;
+    }
+
+    /**
+     * Computes the open slots between the opening and closing date by merging them with the reservations of the day.
+     * @param openingDate First date a slot may start at
+     * @param closingDate Last date a slot may end at
+     * @param calendarEntriesOfDay Reservations of the day, ordered by their start date
+     * @return List of open slots, each one {@link ReservationConstants#RESERVATION_SLOT_SIZE} minutes long
+     */
+    private static List<OpenSlotDTO> computeOpenSlots(final LocalDateTime openingDate, final LocalDateTime closingDate,
+                                                      final List<CalendarEntry> calendarEntriesOfDay) {
+        final List<OpenSlotDTO> openSlots = new ArrayList<>();
+        LocalDateTime currentDate = openingDate;
+        for (final CalendarEntry calendarEntry : calendarEntriesOfDay) {
+            if (!currentDate.isBefore(closingDate)) {
+                break;
+            }
+            final LocalDateTime entryEndDate = calendarEntry.getEndDate();
+            if (!entryEndDate.isAfter(currentDate)) {
+                continue;
+            }
+            final LocalDateTime entryStartDate = calendarEntry.getStartDate();
+            if (entryStartDate.isAfter(currentDate)) {
+                addOpenSlots(openSlots, currentDate, entryStartDate.isBefore(closingDate) ? entryStartDate : closingDate);
+            }
+            currentDate = entryEndDate;
+        }
+        addOpenSlots(openSlots, currentDate, closingDate);
+        return openSlots;
+    }
+
+    /**
+     * Splits a free interval to open slots and adds them to the list.
+     * @param openSlots List of open slots
+     * @param intervalStart Start of the free interval
+     * @param intervalEnd End of the free interval
+     */
+    private static void addOpenSlots(final List<OpenSlotDTO> openSlots, final LocalDateTime intervalStart,
+                                     final LocalDateTime intervalEnd) {
+        LocalDateTime slotStartDate = intervalStart;
+        LocalDateTime slotEndDate = slotStartDate.plusMinutes(ReservationConstants.RESERVATION_SLOT_SIZE);
+        while (!slotEndDate.isAfter(intervalEnd)) {
+            final OpenSlotDTO openSlotDTO = new OpenSlotDTO();
+            openSlotDTO.setSlotStartDate(slotStartDate);
+            openSlotDTO.setSlotEndDate(slotEndDate);
+            openSlots.add(openSlotDTO);
+            slotStartDate = slotEndDate;
+            slotEndDate = slotStartDate.plusMinutes(ReservationConstants.RESERVATION_SLOT_SIZE);
+        }
+    }
+
+    /**
+     * Lists the weekdays between two days (both inclusive).
+     * @param firstDay First day of the range
+     * @param lastDay Last day of the range
+     * @return Ordered list of weekdays
+     */
+    public static List<LocalDate> listWeekdays(final LocalDate firstDay, final LocalDate lastDay) {
+        if (firstDay.isAfter(lastDay)) {
+            return Collections.emptyList();
+        }
+        final List<LocalDate> weekdays = new ArrayList<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue()) {
+                weekdays.add(day);
+            }
+        }
+        return weekdays;
+    }
+
+    /**
+     * Returns the first date a slot may start at on the given day. If a lower bound is specified within the day, the
+     * opening date is moved to the next slot boundary not before it.
+     * @param day Day to be checked
+     * @param lowerBound Date and time the slot may not start before, or {@code null}
+     * @return Opening date of the day
+     */
+    public static LocalDateTime openingOfDay(final LocalDate day, final LocalDateTime lowerBound) {
+        final LocalDateTime openingDate = day.atTime(ReservationConstants.FIRST_HOUR_OF_WEEKDAY_ALLOWED, 0);
+        if (lowerBound == null || !lowerBound.isAfter(openingDate)) {
+            return openingDate;
+        }
+        final long minutesSinceOpening = ChronoUnit.MINUTES.between(openingDate, lowerBound)
+                + (lowerBound.truncatedTo(ChronoUnit.MINUTES).isBefore(lowerBound) ? 1 : 0);
+        final long slotsSinceOpening = (minutesSinceOpening + ReservationConstants.RESERVATION_SLOT_SIZE - 1)
+                / ReservationConstants.RESERVATION_SLOT_SIZE;
+        return openingDate.plusMinutes(slotsSinceOpening * ReservationConstants.RESERVATION_SLOT_SIZE);
+    }
+
+    /**
+     * Returns the last date a slot may end at on the given day.
+     * @param day Day to be checked
+     * @return Closing date of the day
+     */
+    public static LocalDateTime closingOfDay(final LocalDate day) {
+        return day.atTime(ReservationConstants.LAST_HOUR_OF_WEEKDAY_ALLOWED, 0);
+    }
+}
@@ -0,0 +1,82 @@
+package hu.hmarton.allianz.calendar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import hu.hmarton.allianz.calendar.repository.OutboxEventRepository;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Service class persisting reservation changes. Every change is recorded as an {@link OutboxEvent} in the same
+ * transaction, so downstream systems can follow the changes without scanning the reservations.
+ */
+@Service
+public class ReservationService {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+    /** {@link CalendarEntryStore} bean. */
+    @Autowired
+    private CalendarEntryStore calendarEntryStore;
+    /** {@link OutboxEventRepository} bean. */
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    /** {@link CalendarClock} bean. */
+    @Autowired
+    private CalendarClock calendarClock;
+    /** {@link ObjectMapper} bean. */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Saves a new, already validated reservation together with its outbox event.
+     * @param calendarEntry Calendar entry to be saved
+     * @return Saved CalendarEntry entity
+     */
+    @Transactional
+    public CalendarEntry saveReservation(final CalendarEntry calendarEntry) {
+        final CalendarEntry savedCalendarEntry = calendarEntryStore.insert(calendarEntry);
+        appendOutboxEvent(OutboxEvent.RESERVATION_CREATED, savedCalendarEntry);
+        return savedCalendarEntry;
+    }
+
+    /**
+     * Cancels a reservation, recording the cancellation in the outbox.
+     * @param id Identifier of the reservation
+     * @return An {@link Optional} containing the cancelled reservation, or an empty one if it didn't exist
+     */
+    @Transactional
+    public Optional<CalendarEntry> cancelReservation(final long id) {
+        final Optional<CalendarEntry> cancelledCalendarEntry = calendarEntryStore.delete(id);
+        cancelledCalendarEntry.ifPresent(calendarEntry ->
+                appendOutboxEvent(OutboxEvent.RESERVATION_CANCELLED, calendarEntry));
+        return cancelledCalendarEntry;
+    }
+
+    /**
+     * Appends an event about a reservation change to the outbox.
+     * @param eventType Type of the event
+     * @param calendarEntry Calendar entry after the change
+     */
+    private void appendOutboxEvent(final String eventType, final CalendarEntry calendarEntry) {
+        final OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(eventType);
+        outboxEvent.setCalendarEntryId(calendarEntry.getId());
+        outboxEvent.setCreatedAt(calendarClock.now());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(calendarEntry));
+        } catch (final JsonProcessingException exception) {
+            throw new IllegalStateException("Unable to serialize calendar entry " + calendarEntry.getId(), exception);
+        }
+        outboxEventRepository.save(outboxEvent);
+        logger.debug("Appended {} event of calendar entry {} to the outbox", eventType, calendarEntry.getId());
+    }
+}
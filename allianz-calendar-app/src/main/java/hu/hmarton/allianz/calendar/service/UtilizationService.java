@@ -0,0 +1,118 @@
+package hu.hmarton.allianz.calendar.service;
+
+import hu.hmarton.allianz.calendar.dto.UtilizationDTO;
+import hu.hmarton.allianz.calendar.dto.UtilizationGranularity;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Service class computing the utilization of the calendar. The reservations of the range are fetched by a single
+ * query, then the days are scanned in parallel on the common fork-join pool, each one writing its own region of the
+ * encoded buckets.
+ */
+@Service
+public class UtilizationService {
+    /** Number of reservation slots within a weekday. */
+    private static final int SLOTS_PER_DAY = (ReservationConstants.LAST_HOUR_OF_WEEKDAY_ALLOWED
+            - ReservationConstants.FIRST_HOUR_OF_WEEKDAY_ALLOWED) * 60 / ReservationConstants.RESERVATION_SLOT_SIZE;
+    /** Bit mask of the first slot within a byte of a bitmap. */
+    private static final int FIRST_SLOT_OF_BYTE_MASK = 0x80;
+
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(UtilizationService.class);
+    /** {@link OpenSlotService} bean. */
+    @Autowired
+    private OpenSlotService openSlotService;
+
+    /**
+     * Computes the utilization of the weekdays within the specified date range.
+     * @param from First day of the range
+     * @param to Last day of the range (inclusive)
+     * @param granularity Granularity of the buckets
+     * @return Encoded utilization of the range
+     */
+    public UtilizationDTO computeUtilization(final LocalDate from, final LocalDate to,
+                                             final UtilizationGranularity granularity) {
+        final List<LocalDate> weekdays = OpenSlotService.listWeekdays(from, to);
+        final int slotsPerBucket = granularity.getBucketMinutes() / ReservationConstants.RESERVATION_SLOT_SIZE;
+        final int bucketsPerDay = SLOTS_PER_DAY / slotsPerBucket;
+        final int bytesPerDay = granularity == UtilizationGranularity.SLOT ? (SLOTS_PER_DAY + Byte.SIZE - 1) / Byte.SIZE
+                : bucketsPerDay;
+        final byte[] data = new byte[weekdays.size() * bytesPerDay];
+
+        long occupiedSlotCount = 0;
+        if (!weekdays.isEmpty()) {
+            final List<List<CalendarEntry>> calendarEntriesByDay = openSlotService.fetchCalendarEntriesByDay(weekdays);
+            final IntStream dayIndexes = IntStream.range(0, weekdays.size());
+            occupiedSlotCount = (weekdays.size() > ReservationConstants.WEEKDAYS_PER_WEEK ? dayIndexes.parallel()
+                    : dayIndexes).mapToLong(dayIndex -> encodeDay(weekdays.get(dayIndex),
+                            calendarEntriesByDay.get(dayIndex), granularity, slotsPerBucket, data,
+                            dayIndex * bytesPerDay)).sum();
+        }
+        logger.debug("Computed utilization of {} weekdays between {} and {}: {} occupied slots", weekdays.size(), from,
+                to, occupiedSlotCount);
+
+        final UtilizationDTO utilizationDTO = new UtilizationDTO();
+        utilizationDTO.setFrom(from);
+        utilizationDTO.setTo(to);
+        utilizationDTO.setGranularity(granularity.getValue());
+        utilizationDTO.setDayCount(weekdays.size());
+        utilizationDTO.setBucketsPerDay(bucketsPerDay);
+        utilizationDTO.setBucketMinutes(granularity.getBucketMinutes());
+        utilizationDTO.setOccupiedSlotCount(occupiedSlotCount);
+        utilizationDTO.setData(Base64.getEncoder().encodeToString(data));
+        return utilizationDTO;
+    }
+
+    /**
+     * Encodes the occupied slots of a day into its region of the buckets.
+     * @param day Day to be encoded
+     * @param calendarEntriesOfDay Reservations of the day
+     * @param granularity Granularity of the buckets
+     * @param slotsPerBucket Number of slots within a bucket
+     * @param data Encoded buckets of the whole range
+     * @param offset Offset of the day's region within the buckets
+     * @return Number of occupied slots within the day
+     */
+    private static int encodeDay(final LocalDate day, final List<CalendarEntry> calendarEntriesOfDay,
+                                 final UtilizationGranularity granularity, final int slotsPerBucket, final byte[] data,
+                                 final int offset) {
+        final boolean[] occupiedSlots = new boolean[SLOTS_PER_DAY];
+        final LocalDateTime openingDate = OpenSlotService.openingOfDay(day, null);
+        for (final CalendarEntry calendarEntry : calendarEntriesOfDay) {
+            final long firstSlot = Math.max(0, ChronoUnit.MINUTES.between(openingDate, calendarEntry.getStartDate())
+                    / ReservationConstants.RESERVATION_SLOT_SIZE);
+            final long endSlot = Math.min(SLOTS_PER_DAY, (ChronoUnit.MINUTES.between(openingDate,
+                    calendarEntry.getEndDate()) + ReservationConstants.RESERVATION_SLOT_SIZE - 1)
+                    / ReservationConstants.RESERVATION_SLOT_SIZE);
+            for (int slot = (int) firstSlot; slot < endSlot; slot++) {
+                occupiedSlots[slot] = true;
+            }
+        }
+
+        int occupiedSlotCount = 0;
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            if (!occupiedSlots[slot]) {
+                continue;
+            }
+            occupiedSlotCount++;
+            if (granularity == UtilizationGranularity.SLOT) {
+                data[offset + slot / Byte.SIZE] |= (byte) (FIRST_SLOT_OF_BYTE_MASK >>> (slot % Byte.SIZE));
+            } else {
+                data[offset + slot / slotsPerBucket]++;
+            }
+        }
+        return occupiedSlotCount;
+    }
+}
@@ -0,0 +1,340 @@
+package hu.hmarton.allianz.calendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hu.hmarton.allianz.calendar.dto.WaitlistEntryDTO;
+import hu.hmarton.allianz.calendar.dto.WaitlistStatus;
+import hu.hmarton.allianz.calendar.exc.ValidationErrorMessages;
+import hu.hmarton.allianz.calendar.exc.ValidationException;
+import hu.hmarton.allianz.calendar.exc.WaitlistFullException;
+import hu.hmarton.allianz.calendar.logging.LogMarkers;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.model.ReservationConstants;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service class managing the waitlist of reservation requests whose slots are occupied. Waiting requests are indexed
+ * by every reservation slot they cover, so a released reservation only looks at the requests waiting for its own
+ * slots. Those are served first-come-first-served: a request is allocated as soon as all of its slots are free.
+ * The same person can wait only once for the same interval, so repeated requests don't fill the waitlist.
+ * Only the index is guarded by a lock; the store is called outside of it, by the thread that claimed the request.
+ * The waitlist is held in memory, waiting requests don't survive a restart.
+ */
+@Service
+public class WaitlistService {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+    /** {@link CalendarEntryStore} bean. */
+    @Autowired
+    private CalendarEntryStore calendarEntryStore;
+    /** {@link ReservationService} bean. */
+    @Autowired
+    private ReservationService reservationService;
+    /** {@link CalendarClock} bean. */
+    @Autowired
+    private CalendarClock calendarClock;
+    /** Sequence of the waitlist entries, giving both their identifier and their order. */
+    private final AtomicLong sequence = new AtomicLong();
+    /** Waiting requests by the start of every slot they cover, then by their sequence number; the lock of the index. */
+    private final NavigableMap<LocalDateTime, NavigableMap<Long, Waiter>> waitersBySlot = new TreeMap<>();
+    /** Waiting requests by their identifier. */
+    private final Map<Long, Waiter> waitingById = new ConcurrentHashMap<>();
+    /** Waiting requests by the person and the interval they requested. */
+    private final Map<WaiterKey, Waiter> waitingByKey = new HashMap<>();
+    /** Recently allocated or expired requests by their identifier, kept for status queries. */
+    private final Cache<Long, Waiter> finishedById;
+    /** Maximal number of waiting requests. */
+    private final int maxWaiting;
+
+    /**
+     * Constructor.
+     * @param maxWaiting Maximal number of waiting requests
+     * @param finishedMaxEntries Maximal number of allocated or expired requests kept for status queries
+     * @param finishedExpiration Time an allocated or expired request is kept for status queries
+     */
+    public WaitlistService(@Value("${calendar.waitlist.max-waiting:10000}") final int maxWaiting,
+                           @Value("${calendar.waitlist.finished-max-entries:10000}") final long finishedMaxEntries,
+                           @Value("${calendar.waitlist.finished-expiration:PT24H}") final Duration finishedExpiration) {
+        this.maxWaiting = maxWaiting;
+        this.finishedById = Caffeine.newBuilder().maximumSize(finishedMaxEntries)
+                .expireAfterWrite(finishedExpiration).build();
+    }
+
+    /**
+     * Reserves the requested slots if they are free, otherwise puts the request on the waitlist. The request is put on
+     * the waitlist before its slots are checked, so it is served after the requests already waiting for them and a
+     * reservation cancelled meanwhile can't be missed.
+     * @param calendarEntry Validated reservation request
+     * @return The waitlist entry, either allocated or waiting
+     * @throws ValidationException If the same person is already waiting for the same interval
+     * @throws WaitlistFullException If the request has to wait but the waitlist is full
+     */
+    public WaitlistEntryDTO reserveOrWait(final CalendarEntry calendarEntry) {
+        final WaiterKey waiterKey = WaiterKey.of(calendarEntry);
+        final Waiter waiter;
+        final boolean waiting;
+        synchronized (waitersBySlot) {
+            if (waitingByKey.containsKey(waiterKey)) {
+                throw new ValidationException(ValidationErrorMessages.VALIDATION_ERROR_WAITLIST_DUPLICATE);
+            }
+            waiter = new Waiter(sequence.incrementAndGet(), calendarEntry);
+            waiting = waitingById.size() < maxWaiting;
+            if (waiting) {
+                waitingById.put(waiter.id, waiter);
+                waitingByKey.put(waiterKey, waiter);
+                forEachSlot(waiter, slotStart -> waitersBySlot.computeIfAbsent(slotStart, key -> new TreeMap<>())
+                        .put(waiter.id, waiter));
+            }
+        }
+        if (!waiting) {
+            // A full waitlist can still serve a request whose slots are free and not awaited by anyone
+            if (hasWaiters(calendarEntry.getStartDate(), calendarEntry.getEndDate()) || !tryAllocate(waiter)) {
+                throw new WaitlistFullException(ValidationErrorMessages.ERROR_WAITLIST_FULL);
+            }
+            finishedById.put(waiter.id, waiter);
+            return waiter.toDTO();
+        }
+        allocateReleasedSlots(calendarEntry.getStartDate(), calendarEntry.getEndDate());
+        logger.debug("Request {} is {}", waiter.id, waiter.status);
+        return waiter.toDTO();
+    }
+
+    /**
+     * Allocates the released slots of a cancelled reservation to the requests waiting for them, in the order the
+     * requests arrived. A request failing to be allocated stays on the waitlist and doesn't stop the requests after
+     * it, as the released reservation is already deleted when this is called. Requests being allocated by another
+     * thread are tried again by that thread, as this release may have come too late for its attempt.
+     * @param startDate Start of the released interval
+     * @param endDate End of the released interval
+     * @return Number of requests allocated
+     */
+    public int allocateReleasedSlots(final LocalDateTime startDate, final LocalDateTime endDate) {
+        final List<Waiter> claimedWaiters = new ArrayList<>();
+        synchronized (waitersBySlot) {
+            final NavigableMap<Long, Waiter> candidates = new TreeMap<>();
+            waitersBySlot.subMap(startDate, true, endDate, false).values().forEach(candidates::putAll);
+            for (final Waiter waiter : candidates.values()) {
+                if (waiter.claimed) {
+                    waiter.releasedWhileClaimed = true;
+                } else {
+                    waiter.claimed = true;
+                    claimedWaiters.add(waiter);
+                }
+            }
+        }
+        int allocatedCount = 0;
+        for (final Waiter waiter : claimedWaiters) {
+            WaitlistStatus status;
+            do {
+                status = allocate(waiter);
+            } while (!unclaim(waiter, status));
+            if (status == WaitlistStatus.ALLOCATED) {
+                allocatedCount++;
+            }
+        }
+        logger.debug("Allocated {} of {} waiting requests", allocatedCount, claimedWaiters.size());
+        return allocatedCount;
+    }
+
+    /**
+     * Checks whether any request is waiting for a slot of an interval. Reservations created directly must not take
+     * these slots, otherwise they would get ahead of the waiting requests.
+     * @param startDate Start of the interval
+     * @param endDate End of the interval
+     * @return {@code true} if a request is waiting for any slot of the interval
+     */
+    public boolean hasWaiters(final LocalDateTime startDate, final LocalDateTime endDate) {
+        synchronized (waitersBySlot) {
+            return !waitersBySlot.subMap(startDate, true, endDate, false).isEmpty();
+        }
+    }
+
+    /**
+     * Returns a request on the waitlist.
+     * @param id Identifier of the waitlist entry
+     * @return An {@link Optional} containing the waitlist entry
+     */
+    public Optional<WaitlistEntryDTO> findWaitlistEntry(final long id) {
+        final Waiter waiter = waitingById.get(id);
+        return Optional.ofNullable(waiter != null ? waiter : finishedById.getIfPresent(id)).map(Waiter::toDTO);
+    }
+
+    /**
+     * Expires the waiting requests whose start date has passed. Requests being allocated are expired by the thread
+     * allocating them.
+     */
+    @Scheduled(fixedDelayString = "${calendar.waitlist.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        final LocalDateTime now = calendarClock.now();
+        synchronized (waitersBySlot) {
+            final Set<Waiter> expiredWaiters = new LinkedHashSet<>();
+            waitersBySlot.headMap(now, false).values().forEach(waiters -> waiters.values().stream()
+                    .filter(waiter -> !waiter.claimed && waiter.calendarEntry.getStartDate().isBefore(now))
+                    .forEach(expiredWaiters::add));
+            expiredWaiters.forEach(waiter -> finish(waiter, WaitlistStatus.EXPIRED));
+        }
+    }
+
+    /**
+     * Tries to allocate a request claimed by the current thread. Called without holding the lock of the index.
+     * @param waiter Claimed request
+     * @return The new status of the request, {@link WaitlistStatus#WAITING} if it has to wait further
+     */
+    private WaitlistStatus allocate(final Waiter waiter) {
+        if (waiter.calendarEntry.getStartDate().isBefore(calendarClock.now())) {
+            return WaitlistStatus.EXPIRED;
+        }
+        try {
+            if (tryAllocate(waiter)) {
+                return WaitlistStatus.ALLOCATED;
+            }
+        } catch (final RuntimeException exception) {
+            logger.warn(LogMarkers.WAITLIST, "Allocating waiting request failed id={}", waiter.id, exception);
+        }
+        return WaitlistStatus.WAITING;
+    }
+
+    /**
+     * Releases the claim of the current thread on a request, removing it from the waitlist if it was allocated or
+     * expired.
+     * @param waiter Claimed request
+     * @param status The new status of the request
+     * @return {@code false} if the request still waits but its slots were released meanwhile, so it has to be tried
+     * again while keeping the claim
+     */
+    private boolean unclaim(final Waiter waiter, final WaitlistStatus status) {
+        synchronized (waitersBySlot) {
+            if (status == WaitlistStatus.WAITING && waiter.releasedWhileClaimed) {
+                waiter.releasedWhileClaimed = false;
+                return false;
+            }
+            waiter.claimed = false;
+            waiter.releasedWhileClaimed = false;
+            if (status != WaitlistStatus.WAITING) {
+                finish(waiter, status);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reserves the slots of a request if they are free.
+     * @param waiter Request
+     * @return {@code true} if the slots were reserved
+     */
+    private boolean tryAllocate(final Waiter waiter) {
+        if (calendarEntryStore.countOverlapping(waiter.calendarEntry.getStartDate(),
+                waiter.calendarEntry.getEndDate()) > 0) {
+            return false;
+        }
+        final CalendarEntry savedCalendarEntry = reservationService.saveReservation(waiter.calendarEntry);
+        waiter.calendarEntryId = savedCalendarEntry.getId();
+        waiter.status = WaitlistStatus.ALLOCATED;
+        return true;
+    }
+
+    /**
+     * Removes a request from the waitlist. Called while holding the lock of the index.
+     * @param waiter Waiting request
+     * @param status Final status of the request
+     */
+    private void finish(final Waiter waiter, final WaitlistStatus status) {
+        waiter.status = status;
+        waitingById.remove(waiter.id);
+        waitingByKey.remove(WaiterKey.of(waiter.calendarEntry), waiter);
+        forEachSlot(waiter, slotStart -> {
+            final NavigableMap<Long, Waiter> waiters = waitersBySlot.get(slotStart);
+            if (waiters != null) {
+                waiters.remove(waiter.id);
+                if (waiters.isEmpty()) {
+                    waitersBySlot.remove(slotStart);
+                }
+            }
+        });
+        finishedById.put(waiter.id, waiter);
+        logger.debug("Request {} left the waitlist as {}", waiter.id, status);
+    }
+
+    /**
+     * Calls an action with the start of every reservation slot covered by a request.
+     * @param waiter Request
+     * @param action Action called with the slot starts
+     */
+    private void forEachSlot(final Waiter waiter, final Consumer<LocalDateTime> action) {
+        for (LocalDateTime slotStart = waiter.calendarEntry.getStartDate();
+             slotStart.isBefore(waiter.calendarEntry.getEndDate());
+             slotStart = slotStart.plusMinutes(ReservationConstants.RESERVATION_SLOT_SIZE)) {
+            action.accept(slotStart);
+        }
+    }
+
+    /**
+     * Identity of a waiting request: the person and the interval requested.
+     * @param bookingPersonName Name of the booking person
+     * @param startDate Start of the requested interval
+     * @param endDate End of the requested interval
+     */
+    private record WaiterKey(String bookingPersonName, LocalDateTime startDate, LocalDateTime endDate) {
+        private static WaiterKey of(final CalendarEntry calendarEntry) {
+            return new WaiterKey(calendarEntry.getBookingPersonName(), calendarEntry.getStartDate(),
+                    calendarEntry.getEndDate());
+        }
+    }
+
+    /**
+     * Reservation request on the waitlist. Its status is written by the thread that claimed it and read without any
+     * lock; its claim is guarded by the lock of the index.
+     */
+    private static final class Waiter {
+        /** Identifier and sequence number of the request. */
+        private final long id;
+        /** Requested reservation. */
+        private final CalendarEntry calendarEntry;
+        /** Status of the request. */
+        private volatile WaitlistStatus status = WaitlistStatus.WAITING;
+        /** Identifier of the reservation created for the request. */
+        private volatile Long calendarEntryId;
+        /** Whether a thread is allocating the request. */
+        private boolean claimed;
+        /** Whether slots of the request were released while it was being allocated. */
+        private boolean releasedWhileClaimed;
+
+        private Waiter(final long id, final CalendarEntry calendarEntry) {
+            this.id = id;
+            this.calendarEntry = calendarEntry;
+        }
+
+        private WaitlistEntryDTO toDTO() {
+            final WaitlistEntryDTO waitlistEntryDTO = new WaitlistEntryDTO();
+            waitlistEntryDTO.setId(id);
+            waitlistEntryDTO.setBookingPersonName(calendarEntry.getBookingPersonName());
+            waitlistEntryDTO.setStartDate(calendarEntry.getStartDate());
+            waitlistEntryDTO.setEndDate(calendarEntry.getEndDate());
+            waitlistEntryDTO.setStatus(status);
+            waitlistEntryDTO.setCalendarEntryId(calendarEntryId);
+            return waitlistEntryDTO;
+        }
+    }
+}
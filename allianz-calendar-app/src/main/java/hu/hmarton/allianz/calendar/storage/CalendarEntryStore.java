@@ -0,0 +1,60 @@
+package hu.hmarton.allianz.calendar.storage;
+
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage SPI of {@link CalendarEntry} objects, covering every access the reservation logic needs. The engine is
+ * selected by the {@code calendar.storage.engine} property: {@code jpa} (default) or {@code memory}.
+ */
+public interface CalendarEntryStore {
+    /**
+     * Returns all {@link CalendarEntry} objects which has its start date value between the specified dates.
+     * @param openingDate Opening date value
+     * @param closingDate Closing date value
+     * @return List of {@link CalendarEntry} objects withing the date range specified, ordered by start date
+     */
+    List<CalendarEntry> findByStartDateBetween(LocalDateTime openingDate, LocalDateTime closingDate);
+
+    /**
+     * Returns the number of {@link CalendarEntry} objects which would overlap with a reservation with the specified
+     * starting and ending date.
+     * @param startDate Start date of a reservation
+     * @param endDate End date of a reservation
+     * @return Number of overlapping {@link CalendarEntry} objects
+     */
+    long countOverlapping(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Returns the {@link CalendarEntry} available at the specified date. Reservations are half-open intervals, so at
+     * the boundary of two adjacent reservations only the later one is returned.
+     * @param date Date which should be included by a reservation
+     * @return An {@link Optional} containing the result
+     */
+    Optional<CalendarEntry> getByDate(LocalDateTime date);
+
+    /**
+     * Returns the {@link CalendarEntry} created by a request with the specified idempotency key.
+     * @param idempotencyKey Idempotency key sent by the caller
+     * @return An {@link Optional} containing the result
+     */
+    Optional<CalendarEntry> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Inserts a new {@link CalendarEntry}.
+     * @param calendarEntry Calendar entry to be inserted
+     * @return Inserted calendar entry, with its identifier set
+     * @throws org.springframework.dao.DataIntegrityViolationException If the idempotency key is already used
+     */
+    CalendarEntry insert(CalendarEntry calendarEntry);
+
+    /**
+     * Deletes the {@link CalendarEntry} with the specified identifier.
+     * @param id Identifier of the calendar entry
+     * @return An {@link Optional} containing the deleted calendar entry, or an empty one if it didn't exist
+     */
+    Optional<CalendarEntry> delete(long id);
+}
@@ -0,0 +1,301 @@
+package hu.hmarton.allianz.calendar.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CalendarEntryStore} keeping the calendar entries in memory, in a concurrent skip list ordered by start date.
+ * Overlap and point queries only scan the entries starting within the longest reservation length before the queried
+ * interval, so they don't depend on the number of entries stored. If {@code calendar.storage.snapshot-path} is set,
+ * the entries are restored from that file on startup and saved to it on shutdown. Writes are visible at once, so
+ * concurrent overlap checks see them; if they happen within a transaction which is rolled back, e.g. because its
+ * outbox event couldn't be written, they are undone.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.storage.engine", havingValue = "memory")
+public class InMemoryCalendarEntryStore implements CalendarEntryStore {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(InMemoryCalendarEntryStore.class);
+    /** Calendar entries ordered by their start date and identifier. */
+    private final ConcurrentSkipListMap<EntryKey, CalendarEntry> calendarEntries = new ConcurrentSkipListMap<>();
+    /** Calendar entries by their identifier. */
+    private final Map<Long, CalendarEntry> calendarEntriesById = new ConcurrentHashMap<>();
+    /** Calendar entries by their idempotency key. */
+    private final Map<String, CalendarEntry> calendarEntriesByIdempotencyKey = new ConcurrentHashMap<>();
+    /** Last identifier assigned. */
+    private final AtomicLong lastId = new AtomicLong();
+    /** Length of the longest calendar entry stored, in seconds. */
+    private final AtomicLong longestEntrySeconds = new AtomicLong();
+    /** {@link ObjectMapper} used for snapshots. */
+    private final ObjectMapper objectMapper;
+    /** File the snapshots are saved to, or {@code null} if snapshotting is disabled. */
+    private final Path snapshotPath;
+
+    /**
+     * Constructor.
+     * @param objectMapper {@link ObjectMapper} used for snapshots
+     * @param snapshotPath Path of the snapshot file, or an empty string to disable snapshotting
+     */
+    public InMemoryCalendarEntryStore(final ObjectMapper objectMapper,
+                                      @Value("${calendar.storage.snapshot-path:}") final String snapshotPath) {
+        this.objectMapper = objectMapper;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @Override
+    public List<CalendarEntry> findByStartDateBetween(final LocalDateTime openingDate,
+                                                      final LocalDateTime closingDate) {
+        if (openingDate.isAfter(closingDate)) {
+            return List.of();
+        }
+        final List<CalendarEntry> result = new ArrayList<>();
+        calendarEntries.subMap(EntryKey.first(openingDate), true, EntryKey.last(closingDate), true).values()
+                .forEach(calendarEntry -> result.add(copy(calendarEntry)));
+        return result;
+    }
+
+    @Override
+    public long countOverlapping(final LocalDateTime startDate, final LocalDateTime endDate) {
+        return candidatesStartingBefore(startDate, endDate, false).values().stream()
+                .filter(calendarEntry -> calendarEntry.getEndDate().isAfter(startDate)).count();
+    }
+
+    @Override
+    public Optional<CalendarEntry> getByDate(final LocalDateTime date) {
+        return candidatesStartingBefore(date, date, true).descendingMap().values().stream()
+                .filter(calendarEntry -> calendarEntry.getEndDate().isAfter(date)).findFirst().map(this::copy);
+    }
+
+    @Override
+    public Optional<CalendarEntry> findByIdempotencyKey(final String idempotencyKey) {
+        return Optional.ofNullable(calendarEntriesByIdempotencyKey.get(idempotencyKey)).map(this::copy);
+    }
+
+    @Override
+    public CalendarEntry insert(final CalendarEntry calendarEntry) {
+        final CalendarEntry storedCalendarEntry = copy(calendarEntry);
+        storedCalendarEntry.setId(lastId.incrementAndGet());
+        if (storedCalendarEntry.getIdempotencyKey() != null && calendarEntriesByIdempotencyKey.putIfAbsent(
+                storedCalendarEntry.getIdempotencyKey(), storedCalendarEntry) != null) {
+            throw new DataIntegrityViolationException("Idempotency key " + storedCalendarEntry.getIdempotencyKey()
+                    + " is already used");
+        }
+        store(storedCalendarEntry);
+        undoOnRollback(() -> unstore(storedCalendarEntry));
+        return copy(storedCalendarEntry);
+    }
+
+    @Override
+    public Optional<CalendarEntry> delete(final long id) {
+        final CalendarEntry calendarEntry = calendarEntriesById.get(id);
+        if (calendarEntry == null || !unstore(calendarEntry)) {
+            return Optional.empty();
+        }
+        undoOnRollback(() -> {
+            if (calendarEntry.getIdempotencyKey() != null) {
+                calendarEntriesByIdempotencyKey.putIfAbsent(calendarEntry.getIdempotencyKey(), calendarEntry);
+            }
+            store(calendarEntry);
+        });
+        return Optional.of(copy(calendarEntry));
+    }
+
+    /**
+     * Saves all calendar entries to the snapshot file. The file is replaced atomically.
+     * @throws IOException If the snapshot couldn't be written
+     */
+    public void saveSnapshot() throws IOException {
+        if (snapshotPath == null) {
+            return;
+        }
+        final List<SnapshotEntry> snapshotEntries = calendarEntries.values().stream().map(SnapshotEntry::of).toList();
+        if (snapshotPath.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+        }
+        final Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        objectMapper.writeValue(temporaryPath.toFile(), snapshotEntries);
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Saved {} calendar entries to snapshot {}", snapshotEntries.size(), snapshotPath);
+    }
+
+    /**
+     * Restores the calendar entries from the snapshot file, if it exists.
+     * @throws IOException If the snapshot couldn't be read
+     */
+    @PostConstruct
+    public void restoreSnapshot() throws IOException {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        final List<SnapshotEntry> snapshotEntries =
+                objectMapper.readValue(snapshotPath.toFile(), new TypeReference<List<SnapshotEntry>>() { });
+        for (final SnapshotEntry snapshotEntry : snapshotEntries) {
+            final CalendarEntry calendarEntry = snapshotEntry.toCalendarEntry();
+            lastId.accumulateAndGet(calendarEntry.getId(), Math::max);
+            if (calendarEntry.getIdempotencyKey() != null) {
+                calendarEntriesByIdempotencyKey.put(calendarEntry.getIdempotencyKey(), calendarEntry);
+            }
+            store(calendarEntry);
+        }
+        logger.info("Restored {} calendar entries from snapshot {}", snapshotEntries.size(), snapshotPath);
+    }
+
+    /**
+     * Saves a snapshot on shutdown.
+     * @throws IOException If the snapshot couldn't be written
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        saveSnapshot();
+    }
+
+    /**
+     * Adds a calendar entry to the skip list and to the identifier index.
+     * @param calendarEntry Calendar entry owned by the store
+     */
+    private void store(final CalendarEntry calendarEntry) {
+        longestEntrySeconds.accumulateAndGet(
+                Duration.between(calendarEntry.getStartDate(), calendarEntry.getEndDate()).toSeconds(), Math::max);
+        calendarEntriesById.put(calendarEntry.getId(), calendarEntry);
+        calendarEntries.put(new EntryKey(calendarEntry.getStartDate(), calendarEntry.getId()), calendarEntry);
+    }
+
+    /**
+     * Removes a calendar entry from the skip list and from the indexes.
+     * @param calendarEntry Calendar entry owned by the store
+     * @return {@code true} if the calendar entry was stored, {@code false} if it was already removed
+     */
+    private boolean unstore(final CalendarEntry calendarEntry) {
+        if (!calendarEntriesById.remove(calendarEntry.getId(), calendarEntry)) {
+            return false;
+        }
+        calendarEntries.remove(new EntryKey(calendarEntry.getStartDate(), calendarEntry.getId()));
+        if (calendarEntry.getIdempotencyKey() != null) {
+            calendarEntriesByIdempotencyKey.remove(calendarEntry.getIdempotencyKey(), calendarEntry);
+        }
+        return true;
+    }
+
+    /**
+     * Registers an action undoing a write, run if the current transaction is rolled back. Does nothing outside of a
+     * transaction.
+     * @param undo Action undoing the write
+     */
+    private void undoOnRollback(final Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the calendar entries which may contain a part of the specified interval: the ones starting within the
+     * longest entry length before the start of the interval and before its end.
+     * @param startDate Start of the interval
+     * @param endDate End of the interval
+     * @param endInclusive Whether entries starting at the end of the interval are included
+     * @return Candidate calendar entries ordered by their start date
+     */
+    private ConcurrentNavigableMap<EntryKey, CalendarEntry> candidatesStartingBefore(final LocalDateTime startDate,
+                                                                                     final LocalDateTime endDate,
+                                                                                     final boolean endInclusive) {
+        final LocalDateTime earliestStartDate = startDate.minusSeconds(longestEntrySeconds.get());
+        return calendarEntries.subMap(EntryKey.first(earliestStartDate), true,
+                endInclusive ? EntryKey.last(endDate) : EntryKey.first(endDate), endInclusive);
+    }
+
+    /**
+     * Creates a copy of a calendar entry, so callers can't modify the stored objects.
+     * @param calendarEntry Calendar entry to be copied
+     * @return Copy of the calendar entry
+     */
+    private CalendarEntry copy(final CalendarEntry calendarEntry) {
+        final CalendarEntry copy = new CalendarEntry();
+        copy.setId(calendarEntry.getId());
+        copy.setBookingPersonName(calendarEntry.getBookingPersonName());
+        copy.setStartDate(calendarEntry.getStartDate());
+        copy.setEndDate(calendarEntry.getEndDate());
+        copy.setIdempotencyKey(calendarEntry.getIdempotencyKey());
+        return copy;
+    }
+
+    /**
+     * Key of the skip list, ordering calendar entries by their start date, then by their identifier.
+     * @param startDate Start date of the calendar entry
+     * @param id Identifier of the calendar entry
+     */
+    private record EntryKey(LocalDateTime startDate, long id) implements Comparable<EntryKey> {
+        private static EntryKey first(final LocalDateTime startDate) {
+            return new EntryKey(startDate, Long.MIN_VALUE);
+        }
+
+        private static EntryKey last(final LocalDateTime startDate) {
+            return new EntryKey(startDate, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(final EntryKey other) {
+            final int startDateComparison = startDate.compareTo(other.startDate);
+            return startDateComparison != 0 ? startDateComparison : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Calendar entry as written to a snapshot, including its idempotency key.
+     * @param id Identifier
+     * @param bookingPersonName Name of the person created the reservation
+     * @param startDate Start date of the reservation
+     * @param endDate End date of the reservation
+     * @param idempotencyKey Idempotency key of the request created the reservation
+     */
+    record SnapshotEntry(long id, String bookingPersonName, LocalDateTime startDate, LocalDateTime endDate,
+                         String idempotencyKey) {
+        private static SnapshotEntry of(final CalendarEntry calendarEntry) {
+            return new SnapshotEntry(calendarEntry.getId(), calendarEntry.getBookingPersonName(),
+                    calendarEntry.getStartDate(), calendarEntry.getEndDate(), calendarEntry.getIdempotencyKey());
+        }
+
+        private CalendarEntry toCalendarEntry() {
+            final CalendarEntry calendarEntry = new CalendarEntry();
+            calendarEntry.setId(id);
+            calendarEntry.setBookingPersonName(bookingPersonName);
+            calendarEntry.setStartDate(startDate);
+            calendarEntry.setEndDate(endDate);
+            calendarEntry.setIdempotencyKey(idempotencyKey);
+            return calendarEntry;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package hu.hmarton.allianz.calendar.storage;
+
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.repository.CalendarEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link CalendarEntryStore} keeping the calendar entries in the database through {@link CalendarEntryRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaCalendarEntryStore implements CalendarEntryStore {
+    /** {@link CalendarEntryRepository} bean. */
+    @Autowired
+    private CalendarEntryRepository calendarEntryRepository;
+
+    @Override
+    public List<CalendarEntry> findByStartDateBetween(final LocalDateTime openingDate,
+                                                      final LocalDateTime closingDate) {
+        return calendarEntryRepository.findByStartDateBetweenOrderByStartDateAsc(openingDate, closingDate);
+    }
+
+    @Override
+    public long countOverlapping(final LocalDateTime startDate, final LocalDateTime endDate) {
+        return calendarEntryRepository.countOverlapping(startDate, endDate);
+    }
+
+    @Override
+    public Optional<CalendarEntry> getByDate(final LocalDateTime date) {
+        return calendarEntryRepository.getByDate(date);
+    }
+
+    @Override
+    public Optional<CalendarEntry> findByIdempotencyKey(final String idempotencyKey) {
+        return calendarEntryRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    @Override
+    public CalendarEntry insert(final CalendarEntry calendarEntry) {
+        return calendarEntryRepository.save(calendarEntry);
+    }
+
+    @Override
+    public Optional<CalendarEntry> delete(final long id) {
+        final Optional<CalendarEntry> calendarEntry = calendarEntryRepository.findById(id);
+        calendarEntry.ifPresent(calendarEntryRepository::delete);
+        return calendarEntry;
+    }
+}
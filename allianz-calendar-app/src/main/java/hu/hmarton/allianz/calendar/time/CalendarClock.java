@@ -0,0 +1,68 @@
+package hu.hmarton.allianz.calendar.time;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Current date and time of the calendar, read from the injected {@link Clock} in the zone of the calendar.
+ */
+@Component
+public class CalendarClock {
+    /** Clock of the calendar. */
+    private final Clock clock;
+
+    /**
+     * Constructor.
+     * @param clock Clock of the calendar
+     */
+    public CalendarClock(final Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current date and time in the zone of the calendar.
+     * @return Current date and time
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Returns the current date in the zone of the calendar.
+     * @return Current date
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Returns the zone of the calendar.
+     * @return Zone of the calendar
+     */
+    public ZoneId getZone() {
+        return clock.getZone();
+    }
+
+    /**
+     * Returns the boundaries of the current week.
+     * @return Boundaries of the current week
+     */
+    public WeekBoundaries currentWeek() {
+        return weekOf(today());
+    }
+
+    /**
+     * Returns the boundaries of the week containing the specified date.
+     * @param date Any day of the week
+     * @return Boundaries of the week
+     */
+    public WeekBoundaries weekOf(final LocalDate date) {
+        return WeekBoundaries.ofMonday(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+    }
+}
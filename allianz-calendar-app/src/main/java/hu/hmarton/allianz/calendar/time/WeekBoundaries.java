@@ -0,0 +1,27 @@
+package hu.hmarton.allianz.calendar.time;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Boundaries of the working days of a week, in the zone of the calendar.
+ * @param monday Monday of the week
+ * @param friday Friday of the week
+ * @param start Start of Monday
+ * @param end Last moment of Friday
+ */
+public record WeekBoundaries(LocalDate monday, LocalDate friday, LocalDateTime start, LocalDateTime end) {
+    /** Number of days from Monday to Friday. */
+    private static final int DAYS_FROM_MONDAY_TO_FRIDAY = 4;
+
+    /**
+     * Computes the boundaries of the week starting on the specified Monday.
+     * @param monday Monday of the week
+     * @return Boundaries of the week
+     */
+    static WeekBoundaries ofMonday(final LocalDate monday) {
+        final LocalDate friday = monday.plusDays(DAYS_FROM_MONDAY_TO_FRIDAY);
+        return new WeekBoundaries(monday, friday, monday.atStartOfDay(), LocalTime.MAX.atDate(friday));
+    }
+}
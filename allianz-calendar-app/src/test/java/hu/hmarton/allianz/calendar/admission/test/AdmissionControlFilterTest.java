@@ -0,0 +1,78 @@
+package hu.hmarton.allianz.calendar.admission.test;
+
+import hu.hmarton.allianz.calendar.AllianzCalendarApp;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+/**
+ * Testing the rate limit of the reservation endpoints with a tiny token bucket.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = AllianzCalendarApp.class,
+        properties = {"calendar.admission.rate-limit.capacity=2",
+                "calendar.admission.rate-limit.refill-per-second=0.001"})
+@AutoConfigureMockMvc
+public class AdmissionControlFilterTest {
+
+    /** Address of the client exceeding its rate limit. */
+    private static final String BUSY_CLIENT_ADDRESS = "10.0.0.1";
+    /** Address of a client within its rate limit. */
+    private static final String OTHER_CLIENT_ADDRESS = "10.0.0.2";
+    /** Address of the client sending a new client id header with every request. */
+    private static final String ROTATING_CLIENT_ADDRESS = "10.0.0.3";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void rateLimitExceeded_RejectedPerRemoteAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly").with(remoteAddress(BUSY_CLIENT_ADDRESS)))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mvc.perform(MockMvcRequestBuilders.post("/reservation").with(remoteAddress(BUSY_CLIENT_ADDRESS))
+                        .contentType(MediaType.APPLICATION_JSON).content("not even JSON"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER));
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly").with(remoteAddress(OTHER_CLIENT_ADDRESS)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get("/statistics/admission"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rateLimitedCount", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.admittedCount", Matchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.inProgressCount", Matchers.is(0)));
+    }
+
+    @Test
+    public void rateLimitWithRotatedClientIdHeader_Rejected() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly").with(remoteAddress(ROTATING_CLIENT_ADDRESS))
+                            .header("X-Client-Id", "client-" + i))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly").with(remoteAddress(ROTATING_CLIENT_ADDRESS))
+                        .header("X-Client-Id", "client-2"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+    }
+
+    private RequestPostProcessor remoteAddress(final String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package hu.hmarton.allianz.calendar.admission.test;
+
+import hu.hmarton.allianz.calendar.AllianzCalendarApp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Testing that clients behind the trusted local reverse proxy get their own token buckets, identified by the
+ * forwarded address the proxy sends.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = AllianzCalendarApp.class,
+        properties = {"calendar.admission.rate-limit.capacity=2",
+                "calendar.admission.rate-limit.refill-per-second=0.001"})
+public class ForwardedClientAddressTest {
+
+    /** Forwarded address of the client exceeding its rate limit. */
+    private static final String BUSY_CLIENT_ADDRESS = "203.0.113.1";
+    /** Forwarded address of a client within its rate limit. */
+    private static final String OTHER_CLIENT_ADDRESS = "203.0.113.2";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void rateLimitExceeded_RejectedPerForwardedAddress() {
+        Assertions.assertEquals(HttpStatus.OK, getWeeklyScheduleForwardedFor(BUSY_CLIENT_ADDRESS));
+        Assertions.assertEquals(HttpStatus.OK, getWeeklyScheduleForwardedFor(BUSY_CLIENT_ADDRESS));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, getWeeklyScheduleForwardedFor(BUSY_CLIENT_ADDRESS));
+
+        Assertions.assertEquals(HttpStatus.OK, getWeeklyScheduleForwardedFor(OTHER_CLIENT_ADDRESS));
+    }
+
+    private HttpStatusCode getWeeklyScheduleForwardedFor(final String clientAddress) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientAddress);
+        return restTemplate.exchange("/reservations/weekly", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode();
+    }
+}
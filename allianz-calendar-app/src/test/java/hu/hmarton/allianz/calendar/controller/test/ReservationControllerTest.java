@@ -1,16 +1,24 @@
 package hu.hmarton.allianz.calendar.controller.test;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import hu.hmarton.allianz.calendar.AllianzCalendarApp;
+import hu.hmarton.allianz.calendar.controller.ReservationController;
+import hu.hmarton.allianz.calendar.dto.WaitlistStatus;
 import hu.hmarton.allianz.calendar.exc.ValidationErrorMessages;
 import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.test.FixedClockConfig;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -18,9 +26,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 
 /**
@@ -30,13 +41,18 @@ import java.time.temporal.ChronoUnit;
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.MOCK,
-        classes = AllianzCalendarApp.class)
+        classes = AllianzCalendarApp.class,
+        properties = "calendar.admission.enabled=false")
 @AutoConfigureMockMvc
+@Import(FixedClockConfig.class)
 public class ReservationControllerTest {
 
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private Clock clock;
+
     @Test
     public void createNewReservation_Success() throws Exception {
         //Next Monday from 9:00-10:00
@@ -88,7 +104,7 @@ public class ReservationControllerTest {
 
     @Test
     public void createNewReservationToLastWeek_Error() throws Exception {
-        final LocalDateTime startDateAtLastWeek = LocalDateTime.now().minus(8, ChronoUnit.DAYS);
+        final LocalDateTime startDateAtLastWeek = LocalDateTime.now(clock).minus(8, ChronoUnit.DAYS);
         final String jsonContent =
                 createJsonObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(createNewCalendarEntry(
                         RandomStringUtils.randomAlphabetic(8, 16), startDateAtLastWeek, Duration.of(30, ChronoUnit.MINUTES)));
@@ -301,6 +317,29 @@ public class ReservationControllerTest {
                 .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_DATES_OVERLAPPING_WITH_EXISTING_RESERVATION));
     }
 
+    @Test
+    public void createOverlappingReservationsByWholeContaining_Error() throws Exception {
+        //Monday of the week after next from 10:00-10:30, then 9:30-11:00 containing it
+        final LocalDateTime firstReservationStartDate =
+                createValidStartDateAtNextMonday().plusWeeks(1).withHour(10).withMinute(0);
+        final String firstJsonContent =
+                createJsonObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(createNewCalendarEntry(
+                        RandomStringUtils.randomAlphabetic(8, 16), firstReservationStartDate,
+                        Duration.of(30, ChronoUnit.MINUTES)));
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON).content(firstJsonContent))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        final String secondJsonContent =
+                createJsonObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(createNewCalendarEntry(
+                        RandomStringUtils.randomAlphabetic(8, 16), firstReservationStartDate.withHour(9).withMinute(30),
+                        Duration.of(90, ChronoUnit.MINUTES)));
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON).content(secondJsonContent))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_DATES_OVERLAPPING_WITH_EXISTING_RESERVATION));
+    }
+
     @Test
     public void create4ReservationsByDifferentPersonsOnSameDayWithoutOverlapping_Success() throws Exception {
         final int reservationDurationHours = 2;
@@ -346,12 +385,221 @@ public class ReservationControllerTest {
                 .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    public void listWeeklyScheduleTwice_ServedFromQueryCache() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/weekly"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get("/statistics/cache"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].regionName",
+                        Matchers.hasItems(CalendarEntry.CACHE_REGION, CalendarEntry.QUERY_CACHE_REGION)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.regionName == '" + CalendarEntry.QUERY_CACHE_REGION
+                        + "')].hitCount", Matchers.everyItem(Matchers.greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    public void listOpenSlotsByDayOfNextWeek_Success() throws Exception {
+        final LocalDateTime nextMonday = createValidStartDateAtNextMonday();
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/freehours")
+                        .param("from", nextMonday.toLocalDate().toString())
+                        .param("to", nextMonday.toLocalDate().plusDays(6).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(5));
+    }
+
+    @Test
+    public void listOpenSlotsByDayWithTooLongRange_Error() throws Exception {
+        final LocalDateTime nextMonday = createValidStartDateAtNextMonday();
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/freehours")
+                        .param("from", nextMonday.toLocalDate().toString())
+                        .param("to", nextMonday.toLocalDate().plusYears(1).toString()))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_RANGE_TOO_LONG));
+    }
+
+    @Test
+    public void getUtilizationOfTwelveWeeks_Success() throws Exception {
+        final LocalDateTime nextMonday = createValidStartDateAtNextMonday();
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/utilization")
+                        .param("from", nextMonday.toLocalDate().toString())
+                        .param("to", nextMonday.toLocalDate().plusWeeks(12).minusDays(1).toString())
+                        .param("granularity", "hour"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.dayCount").value(60))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.bucketsPerDay").value(8));
+    }
+
+    @Test
+    public void getUtilizationWithUnknownGranularity_Error() throws Exception {
+        final LocalDateTime nextMonday = createValidStartDateAtNextMonday();
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/utilization")
+                        .param("from", nextMonday.toLocalDate().toString())
+                        .param("to", nextMonday.toLocalDate().toString())
+                        .param("granularity", "minute"))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_UNKNOWN_GRANULARITY));
+    }
+
+    @Test
+    public void listOpenSlotsByDayAsCbor_Success() throws Exception {
+        //Monday five weeks from next Monday, without any reservations
+        final LocalDateTime monday = createValidStartDateAtNextMonday().plusWeeks(5);
+        final byte[] cborContent = mvc.perform(MockMvcRequestBuilders.get("/reservations/freehours")
+                        .param("from", monday.toLocalDate().toString())
+                        .param("to", monday.toLocalDate().toString())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        final JsonNode firstOpenSlot =
+                new CBORMapper().readTree(cborContent).get(monday.toLocalDate().toString()).get(0);
+        Assertions.assertTrue(firstOpenSlot.get("slotStartDate").isIntegralNumber());
+        Assertions.assertEquals(monday.withNano(0).toEpochSecond(ZoneOffset.UTC) / 60, firstOpenSlot.get("slotStartDate").asLong());
+    }
+
+    @Test
+    public void createNewReservationRetriedWithIdempotencyKey_Success() throws Exception {
+        //Next Thursday from 9:00-10:00
+        final String idempotencyKey = RandomStringUtils.randomAlphanumeric(32);
+        final String jsonContent =
+                createJsonObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(createNewCalendarEntry(
+                        RandomStringUtils.randomAlphabetic(8, 16), createValidStartDateAtNextMonday().plusDays(3),
+                        Duration.of(1, ChronoUnit.HOURS)));
+
+        final String firstResponse = mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(jsonContent))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.idempotencyKey").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        final String retriedResponse = mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(jsonContent))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertEquals(firstResponse, retriedResponse);
+
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON).content(jsonContent))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_DATES_OVERLAPPING_WITH_EXISTING_RESERVATION));
+    }
+
+    @Test
+    public void createNewReservationWithReusedIdempotencyKey_Error() throws Exception {
+        //Next Thursday from 13:00-14:00, then the same key with 14:00-15:00
+        final String idempotencyKey = RandomStringUtils.randomAlphanumeric(32);
+        final String personName = RandomStringUtils.randomAlphabetic(8, 16);
+        final LocalDateTime startDate = createValidStartDateAtNextMonday().plusDays(3).withHour(13);
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                personName, startDate, Duration.of(1, ChronoUnit.HOURS)))))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .header(ReservationController.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                personName, startDate.plusHours(1), Duration.of(1, ChronoUnit.HOURS)))))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.UNPROCESSABLE_ENTITY.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.ERROR_IDEMPOTENCY_KEY_REUSED));
+    }
+
+    @Test
+    public void createWaitingReservationAllocatedOnCancel_Success() throws Exception {
+        //Next Friday from 9:00-10:00, then two waiting reservations for overlapping slots
+        final LocalDateTime nextFriday = createValidStartDateAtNextMonday().plusDays(4);
+        final String firstJsonContent = createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                RandomStringUtils.randomAlphabetic(8, 16), nextFriday, Duration.of(1, ChronoUnit.HOURS)));
+        final JsonNode firstReservation = createJsonObjectMapper().readTree(mvc.perform(
+                        MockMvcRequestBuilders.post("/reservation/waitlist")
+                                .contentType(MediaType.APPLICATION_JSON).content(firstJsonContent))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(WaitlistStatus.ALLOCATED.name()))
+                .andReturn().getResponse().getContentAsString());
+
+        final String waitingPersonName = RandomStringUtils.randomAlphabetic(8, 16);
+        final JsonNode firstWaiter = createJsonObjectMapper().readTree(mvc.perform(
+                        MockMvcRequestBuilders.post("/reservation/waitlist")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                        waitingPersonName, nextFriday, Duration.of(1, ChronoUnit.HOURS)))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(WaitlistStatus.WAITING.name()))
+                .andReturn().getResponse().getContentAsString());
+        final JsonNode secondWaiter = createJsonObjectMapper().readTree(mvc.perform(
+                        MockMvcRequestBuilders.post("/reservation/waitlist")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                        RandomStringUtils.randomAlphabetic(8, 16), nextFriday.plusMinutes(30),
+                                        Duration.of(30, ChronoUnit.MINUTES)))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andReturn().getResponse().getContentAsString());
+
+        mvc.perform(MockMvcRequestBuilders.delete("/reservation/" + firstReservation.get("calendarEntryId").asLong()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get("/reservation/waitlist/" + firstWaiter.get("id").asLong()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(WaitlistStatus.ALLOCATED.name()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.calendarEntryId").isNumber());
+        mvc.perform(MockMvcRequestBuilders.get("/reservation/waitlist/" + secondWaiter.get("id").asLong()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(WaitlistStatus.WAITING.name()));
+        mvc.perform(MockMvcRequestBuilders.get("/reservations/personname/bydate")
+                        .param("dateString", nextFriday.withMinute(15).format(DateTimeFormatter.ofPattern("yy.MM.dd HH:mm"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(waitingPersonName));
+    }
+
+    @Test
+    public void createNewReservationAwaitedOnWaitlist_Error() throws Exception {
+        //Next Thursday from 15:00-16:00, a reservation waiting for 15:30-16:30, then a new one for 16:00-16:30
+        final LocalDateTime nextThursday = createValidStartDateAtNextMonday().plusDays(3).withHour(15);
+        final String jsonContent = createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                RandomStringUtils.randomAlphabetic(8, 16), nextThursday, Duration.of(1, ChronoUnit.HOURS)));
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON).content(jsonContent))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mvc.perform(MockMvcRequestBuilders.post("/reservation/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                RandomStringUtils.randomAlphabetic(8, 16), nextThursday.plusMinutes(30),
+                                Duration.of(1, ChronoUnit.HOURS)))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+
+        mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createJsonObjectMapper().writeValueAsString(createNewCalendarEntry(
+                                RandomStringUtils.randomAlphabetic(8, 16), nextThursday.plusHours(1),
+                                Duration.of(30, ChronoUnit.MINUTES)))))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_DATES_AWAITED_ON_WAITLIST));
+    }
+
+    @Test
+    public void cancelUnknownReservation_Error() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.delete("/reservation/" + Long.MAX_VALUE))
+                .andExpect(MockMvcResultMatchers.status().is(HttpStatus.BAD_REQUEST.value()))
+                .andExpect(MockMvcResultMatchers.content().string(ValidationErrorMessages.VALIDATION_ERROR_RESERVATION_NOT_FOUND));
+    }
+
     private CalendarEntry createRandomNewCalendarEntry(final boolean withPersonName, final boolean withStartDate,
                                                        final boolean withEndDate) {
         final CalendarEntry newCalendarEntry = new CalendarEntry();
         newCalendarEntry.setBookingPersonName(withPersonName ? RandomStringUtils.randomAlphabetic(8, 16) : null);
-        newCalendarEntry.setStartDate(withStartDate ? LocalDateTime.now() : null);
-        newCalendarEntry.setEndDate(withEndDate ? LocalDateTime.now() : null);
+        newCalendarEntry.setStartDate(withStartDate ? LocalDateTime.now(clock) : null);
+        newCalendarEntry.setEndDate(withEndDate ? LocalDateTime.now(clock) : null);
         return newCalendarEntry;
     }
 
@@ -374,7 +622,7 @@ public class ReservationControllerTest {
     }
 
     private LocalDateTime createValidStartDateAtNextMonday() {
-        final LocalDateTime now = LocalDateTime.now();
+        final LocalDateTime now = LocalDateTime.now(clock);
         final DayOfWeek dayOfWeek = now.getDayOfWeek();
         final int dayOfWeekValue = dayOfWeek.getValue();
         final LocalDateTime nextMonday =
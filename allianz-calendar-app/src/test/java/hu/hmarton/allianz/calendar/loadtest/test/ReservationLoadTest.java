@@ -0,0 +1,301 @@
+package hu.hmarton.allianz.calendar.loadtest.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hu.hmarton.allianz.calendar.AllianzCalendarApp;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.test.FixedClockConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test of the REST API, driven by a reproducible mix of bookings, conflicting bookings, weekly reads and
+ * free-hours polls against a local instance. Admission control is disabled, so the report measures the application
+ * rather than the rate limiter, and the clock of the calendar is fixed, so the same seed books the same slots on
+ * every run. Logs throughput and latency percentiles per endpoint and saves them as a JSON file
+ * named after the project version to {@code load-test-reports}, which outlives {@code mvn clean}. Disabled by
+ * default, run it by {@code mvn test -Pload-test}. The load can be tuned by the {@code loadtest.users},
+ * {@code loadtest.duration} and {@code loadtest.seed} system properties.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = AllianzCalendarApp.class,
+        properties = {"calendar.admission.enabled=false", "logging.level.hu.hmarton.allianz.calendar=WARN",
+                "logging.level.hu.hmarton.allianz.calendar.loadtest=INFO"})
+@Import(FixedClockConfig.class)
+@EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+public class ReservationLoadTest {
+    /** {@link Logger} instance. */
+    private final Logger logger = LoggerFactory.getLogger(ReservationLoadTest.class);
+    /** Number of weeks bookings are spread over. */
+    private static final int BOOKING_WEEKS = 12;
+    /** Number of bookable slots within a day. */
+    private static final int SLOTS_PER_DAY = 16;
+    /** Number of nanoseconds in a millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Clock clock;
+
+    /** Operations of the traffic mix. */
+    private enum Operation {
+        /** Books a random slot, which may or may not be free. */
+        BOOKING("POST /reservation", 20),
+        /** Repeats an earlier successful booking, which always conflicts. */
+        CONFLICTING_BOOKING("POST /reservation (conflicting)", 10),
+        /** Lists the reservations of the current week. */
+        WEEKLY_READ("GET /reservations/weekly", 30),
+        /** Lists the open slots of the current day. */
+        FREE_HOURS_DAY("GET /reservations/freehours/day", 20),
+        /** Lists the open slots of the current week. */
+        FREE_HOURS_WEEK("GET /reservations/freehours/week", 20);
+
+        /** Name of the endpoint in the report. */
+        private final String endpoint;
+        /** Relative weight of the operation in the mix. */
+        private final int weight;
+
+        Operation(final String endpoint, final int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    /** Measurements of one operation recorded by one virtual user. */
+    private static final class Measurements {
+        /** Latencies in nanoseconds. */
+        private long[] latencies = new long[1024];
+        /** Number of latencies recorded. */
+        private int count;
+        /** Number of responses by status class (index 1-5). */
+        private final long[] statusClassCounts = new long[6];
+        /** Number of requests failed without a response. */
+        private long errorCount;
+
+        private void record(final long latency, final int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            statusClassCounts[status / 100]++;
+        }
+    }
+
+    @Test
+    public void runMixedTraffic() throws Exception {
+        final int users = Integer.getInteger("loadtest.users", 16);
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        final long seed = Long.getLong("loadtest.seed", 42L);
+        final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        final HttpClient httpClient = HttpClient.newHttpClient();
+        final ConcurrentLinkedQueue<String> bookedBodies = new ConcurrentLinkedQueue<>();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(users);
+        final long endNanos = System.nanoTime() + duration.toNanos();
+        final List<Future<Measurements[]>> futures = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            final Random random = new Random(seed + user);
+            futures.add(executorService.submit(() -> runVirtualUser(httpClient, objectMapper, random, bookedBodies,
+                    endNanos)));
+        }
+
+        final Measurements[] merged = new Measurements[Operation.values().length];
+        for (int operationIndex = 0; operationIndex < merged.length; operationIndex++) {
+            merged[operationIndex] = new Measurements();
+        }
+        for (final Future<Measurements[]> future : futures) {
+            final Measurements[] userMeasurements = future.get();
+            for (int operationIndex = 0; operationIndex < merged.length; operationIndex++) {
+                merge(merged[operationIndex], userMeasurements[operationIndex]);
+            }
+        }
+        executorService.shutdown();
+
+        final ObjectNode report = createReport(objectMapper, users, duration, seed, merged);
+        final Path reportFile = saveReport(objectMapper, report);
+        logger.info("Load test report:\n{}", objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        logger.info("Load test report saved to {}", reportFile.toAbsolutePath());
+
+        for (final Measurements measurements : merged) {
+            Assertions.assertEquals(0, measurements.statusClassCounts[5], "Server errors occurred during load test");
+            Assertions.assertEquals(0, measurements.errorCount, "Requests failed during load test");
+        }
+    }
+
+    private Measurements[] runVirtualUser(final HttpClient httpClient, final ObjectMapper objectMapper,
+                                          final Random random, final ConcurrentLinkedQueue<String> bookedBodies,
+                                          final long endNanos) {
+        final Measurements[] measurements = new Measurements[Operation.values().length];
+        for (int operationIndex = 0; operationIndex < measurements.length; operationIndex++) {
+            measurements[operationIndex] = new Measurements();
+        }
+        final int totalWeight = Arrays.stream(Operation.values()).mapToInt(operation -> operation.weight).sum();
+        while (System.nanoTime() < endNanos) {
+            Operation operation = pickOperation(random.nextInt(totalWeight));
+            final String conflictingBody = bookedBodies.peek();
+            if (operation == Operation.CONFLICTING_BOOKING && conflictingBody == null) {
+                operation = Operation.BOOKING;
+            }
+            final String body = switch (operation) {
+                case BOOKING -> createBookingBody(objectMapper, random);
+                case CONFLICTING_BOOKING -> conflictingBody;
+                default -> null;
+            };
+            final HttpRequest request = createRequest(operation, body);
+            final long startNanos = System.nanoTime();
+            try {
+                final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                measurements[operation.ordinal()].record(System.nanoTime() - startNanos, response.statusCode());
+                if (operation == Operation.BOOKING && response.statusCode() == 200) {
+                    bookedBodies.add(body);
+                }
+            } catch (final Exception exception) {
+                measurements[operation.ordinal()].errorCount++;
+            }
+        }
+        return measurements;
+    }
+
+    private Operation pickOperation(final int weightValue) {
+        int remainingWeight = weightValue;
+        for (final Operation operation : Operation.values()) {
+            remainingWeight -= operation.weight;
+            if (remainingWeight < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weight value out of range: " + weightValue);
+    }
+
+    private HttpRequest createRequest(final Operation operation, final String body) {
+        final String path = switch (operation) {
+            case BOOKING, CONFLICTING_BOOKING -> "/reservation";
+            case WEEKLY_READ -> "/reservations/weekly";
+            case FREE_HOURS_DAY -> "/reservations/freehours/day";
+            case FREE_HOURS_WEEK -> "/reservations/freehours/week";
+        };
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (body != null) {
+            return builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+        return builder.GET().build();
+    }
+
+    private String createBookingBody(final ObjectMapper objectMapper, final Random random) {
+        final LocalDate nextMonday = LocalDate.now(clock).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        final LocalDate day = nextMonday.plusWeeks(random.nextInt(BOOKING_WEEKS)).plusDays(random.nextInt(5));
+        final int startSlot = random.nextInt(SLOTS_PER_DAY);
+        final int slotCount = 1 + random.nextInt(Math.min(2, SLOTS_PER_DAY - startSlot));
+        final LocalDateTime startDate = day.atTime(9, 0).plusMinutes(30L * startSlot);
+        final CalendarEntry calendarEntry = new CalendarEntry();
+        calendarEntry.setBookingPersonName("Load Test " + random.nextInt(1000));
+        calendarEntry.setStartDate(startDate);
+        calendarEntry.setEndDate(startDate.plusMinutes(30L * slotCount));
+        try {
+            return objectMapper.writeValueAsString(calendarEntry);
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private void merge(final Measurements target, final Measurements source) {
+        if (target.count + source.count > target.latencies.length) {
+            target.latencies = Arrays.copyOf(target.latencies, target.count + source.count);
+        }
+        System.arraycopy(source.latencies, 0, target.latencies, target.count, source.count);
+        target.count += source.count;
+        for (int statusClass = 0; statusClass < target.statusClassCounts.length; statusClass++) {
+            target.statusClassCounts[statusClass] += source.statusClassCounts[statusClass];
+        }
+        target.errorCount += source.errorCount;
+    }
+
+    private ObjectNode createReport(final ObjectMapper objectMapper, final int users, final Duration duration,
+                                    final long seed, final Measurements[] measurements) {
+        final ObjectNode report = objectMapper.createObjectNode();
+        report.put("version", System.getProperty("loadtest.version", "unknown"));
+        //Wall-clock time on purpose: the report records when the run happened, the server runs on the fixed clock
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("users", users);
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("seed", seed);
+        final ObjectNode endpoints = report.putObject("endpoints");
+        for (final Operation operation : Operation.values()) {
+            final Measurements operationMeasurements = measurements[operation.ordinal()];
+            final long[] latencies = Arrays.copyOf(operationMeasurements.latencies, operationMeasurements.count);
+            Arrays.sort(latencies);
+            final ObjectNode endpoint = endpoints.putObject(operation.endpoint);
+            endpoint.put("requests", latencies.length);
+            endpoint.put("throughputPerSecond", latencies.length / (double) duration.toSeconds());
+            endpoint.put("p50Ms", percentile(latencies, 0.5));
+            endpoint.put("p99Ms", percentile(latencies, 0.99));
+            endpoint.put("p999Ms", percentile(latencies, 0.999));
+            endpoint.put("maxMs", latencies.length > 0 ? latencies[latencies.length - 1] / NANOS_PER_MILLI : 0);
+            final ObjectNode statusClasses = endpoint.putObject("statusClasses");
+            for (int statusClass = 1; statusClass < operationMeasurements.statusClassCounts.length; statusClass++) {
+                statusClasses.put(statusClass + "xx", operationMeasurements.statusClassCounts[statusClass]);
+            }
+            endpoint.put("errors", operationMeasurements.errorCount);
+        }
+        return report;
+    }
+
+    private double percentile(final long[] sortedLatencies, final double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, rank)] / NANOS_PER_MILLI;
+    }
+
+    private Path saveReport(final ObjectMapper objectMapper, final ObjectNode report) throws Exception {
+        final Path outputDirectory = Path.of(System.getProperty("loadtest.output-dir", "load-test-reports"));
+        Files.createDirectories(outputDirectory);
+        //Named by wall-clock time like the timestamp in the report, so the reports of successive runs don't collide
+        final Path reportFile = outputDirectory.resolve("load-test-" + report.get("version").asText() + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        return reportFile;
+    }
+}
@@ -0,0 +1,31 @@
+package hu.hmarton.allianz.calendar.logging.test;
+
+import hu.hmarton.allianz.calendar.logging.EscapedMessageConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the escaping of the logged messages.
+ */
+public class EscapedMessageConverterTest {
+
+    @Test
+    public void plainMessageIsNotEscaped_Success() {
+        final String message = "Getting person name date=2023-04-03T10:00";
+
+        Assertions.assertSame(message, EscapedMessageConverter.escape(message));
+    }
+
+    @Test
+    public void quoteAndLineBreakAreEscaped_Success() {
+        final String message = "Invalid idempotencyKey=x\" level=ERROR\nts=forged msg=\"\\";
+
+        Assertions.assertEquals("Invalid idempotencyKey=x\\\" level=ERROR\\nts=forged msg=\\\"\\\\",
+                EscapedMessageConverter.escape(message));
+    }
+
+    @Test
+    public void controlCharacterIsEncoded_Success() {
+        Assertions.assertEquals("a\\r\\t\\u001b[31mb", EscapedMessageConverter.escape("a\r\t\u001b[31mb"));
+    }
+}
@@ -0,0 +1,118 @@
+package hu.hmarton.allianz.calendar.logging.test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.OutputStreamAppender;
+import hu.hmarton.allianz.calendar.logging.EscapedMessageConverter;
+import hu.hmarton.allianz.calendar.logging.LogMarkers;
+import hu.hmarton.allianz.calendar.logging.SamplingTurboFilter;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the cost of the former reservation log statements with the structured, sampled ones at
+ * the production log level (INFO). Events are encoded with the production pattern and written to a discarding
+ * stream, so the cost of formatting is measured without the cost of I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+    /** Pattern of the console appender in {@code logback-spring.xml}. */
+    private static final String PATTERN = "ts=%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} level=%level thread=%thread "
+            + "logger=%logger{36} marker=%marker msg=\"%escapedMsg\"%n";
+    /** Sample rate set in {@code application.properties}. */
+    private static final int SAMPLE_RATE = 10;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private CalendarEntry calendarEntry;
+    private long overlappingEntriesCount;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        final Map<String, String> conversionRules = new HashMap<>();
+        conversionRules.put("escapedMsg", EscapedMessageConverter.class.getName());
+        loggerContext.putObject(CoreConstants.PATTERN_RULE_REGISTRY, conversionRules);
+        final SamplingTurboFilter samplingTurboFilter = new SamplingTurboFilter();
+        samplingTurboFilter.setSampleRate(SAMPLE_RATE);
+        samplingTurboFilter.addMarker(LogMarkers.RESERVATION_REJECTED.getName());
+        samplingTurboFilter.setContext(loggerContext);
+        samplingTurboFilter.start();
+        loggerContext.addTurboFilter(samplingTurboFilter);
+
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        logger = loggerContext.getLogger(LoggingBenchmark.class);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+
+        calendarEntry = new CalendarEntry();
+        calendarEntry.setId(42L);
+        calendarEntry.setBookingPersonName("Benchmark Person");
+        calendarEntry.setStartDate(LocalDateTime.of(2030, 1, 7, 9, 0));
+        calendarEntry.setEndDate(LocalDateTime.of(2030, 1, 7, 10, 30));
+        overlappingEntriesCount = 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void legacyCreateLogAtInfo() {
+        logger.info("Creating new reservation as {}", calendarEntry);
+    }
+
+    @Benchmark
+    public void structuredCreateLogAtInfo() {
+        logger.info(LogMarkers.RESERVATION_CREATE, "Creating reservation start={} end={}", calendarEntry.getStartDate(),
+                calendarEntry.getEndDate());
+    }
+
+    @Benchmark
+    public void legacyRejectionLogAtError() {
+        logger.error("Reservation ({}) overlaps with {} existing reversion(s)!", calendarEntry,
+                overlappingEntriesCount);
+    }
+
+    @Benchmark
+    public void sampledRejectionLogAtInfo() {
+        logger.info(LogMarkers.RESERVATION_REJECTED, "Reservation overlaps existing ones start={} end={}",
+                calendarEntry.getStartDate(), calendarEntry.getEndDate());
+    }
+
+    @Benchmark
+    public void disabledDebugLog() {
+        logger.debug("Checking reservation start={} end={}", calendarEntry.getStartDate(),
+                calendarEntry.getEndDate());
+    }
+}
@@ -0,0 +1,46 @@
+package hu.hmarton.allianz.calendar.logging.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Runs {@link LoggingBenchmark} with the GC profiler, so both the time and the allocation per log statement are
+ * reported. Disabled by default, run it by {@code mvn test -Pbenchmark}. The results are saved as a JSON file to
+ * the directory set by the {@code benchmark.output-dir} system property.
+ */
+@EnabledIfSystemProperty(named = "benchmark.enabled", matches = "true")
+public class LoggingBenchmarkTest {
+
+    @Test
+    public void runLoggingBenchmark() throws Exception {
+        final Path outputDir = Path.of(System.getProperty("benchmark.output-dir", "target/benchmark"));
+        Files.createDirectories(outputDir);
+        final Options options = new OptionsBuilder()
+                .include(LoggingBenchmark.class.getName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(outputDir.resolve("logging-benchmark.json").toString())
+                .build();
+
+        final Collection<RunResult> results = new Runner(options).run();
+
+        Assertions.assertEquals(5, results.size());
+    }
+}
@@ -0,0 +1,150 @@
+package hu.hmarton.allianz.calendar.outbox.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hu.hmarton.allianz.calendar.AllianzCalendarApp;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.model.OutboxEvent;
+import hu.hmarton.allianz.calendar.outbox.InMemoryOutboxEventSink;
+import hu.hmarton.allianz.calendar.outbox.OutboxRelay;
+import hu.hmarton.allianz.calendar.repository.OutboxEventRepository;
+import hu.hmarton.allianz.calendar.test.FixedClockConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+
+/**
+ * Testing that reservations are recorded in the outbox and relayed to the configured sink.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = AllianzCalendarApp.class,
+        properties = {"calendar.outbox.sink=memory", "calendar.outbox.relay-interval-ms=3600000",
+                "calendar.outbox.retention=PT0S", "calendar.outbox.purge-interval-ms=3600000"})
+@AutoConfigureMockMvc
+@Import(FixedClockConfig.class)
+public class OutboxRelayTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxEventSink inMemoryOutboxEventSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void createNewReservationRelayedOnce_Success() throws Exception {
+        final CalendarEntry calendarEntry = new CalendarEntry();
+        calendarEntry.setBookingPersonName("Outbox Test");
+        calendarEntry.setStartDate(MONDAY.atTime(9, 0));
+        calendarEntry.setEndDate(calendarEntry.getStartDate().plusHours(1));
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        final String response = mvc.perform(MockMvcRequestBuilders.post("/reservation")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(calendarEntry)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final long calendarEntryId = objectMapper.readTree(response).get("id").asLong();
+
+        outboxRelay.relay();
+        final OutboxEvent outboxEvent = inMemoryOutboxEventSink.getQueue().poll();
+        Assertions.assertNotNull(outboxEvent);
+        Assertions.assertEquals(OutboxEvent.RESERVATION_CREATED, outboxEvent.getEventType());
+        Assertions.assertEquals(calendarEntryId, outboxEvent.getCalendarEntryId());
+        Assertions.assertTrue(outboxEvent.getPayload().contains("Outbox Test"));
+
+        Assertions.assertEquals(0, outboxRelay.relay());
+        Assertions.assertTrue(inMemoryOutboxEventSink.getQueue().isEmpty());
+    }
+
+    @Test
+    public void eventCommittedAfterLaterEventRelayed_Success() throws Exception {
+        outboxRelay.relay();
+        inMemoryOutboxEventSink.getQueue().clear();
+        final CountDownLatch earlierEventInserted = new CountDownLatch(1);
+        final CountDownLatch laterEventRelayed = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try {
+            //The earlier transaction takes the lower identifier, but commits after the later one was relayed
+            final Future<Long> earlierEventId = executorService.submit(() -> transactionTemplate.execute(status -> {
+                final OutboxEvent outboxEvent = outboxEventRepository.saveAndFlush(createOutboxEvent());
+                earlierEventInserted.countDown();
+                awaitLatch(laterEventRelayed);
+                return outboxEvent.getId();
+            }));
+            Assertions.assertTrue(earlierEventInserted.await(10, TimeUnit.SECONDS));
+            final long laterEventId = transactionTemplate.execute(
+                    status -> outboxEventRepository.save(createOutboxEvent()).getId());
+
+            Assertions.assertEquals(1, outboxRelay.relay());
+            Assertions.assertEquals(laterEventId, inMemoryOutboxEventSink.getQueue().poll().getId());
+            laterEventRelayed.countDown();
+            Assertions.assertTrue(earlierEventId.get(10, TimeUnit.SECONDS) < laterEventId);
+
+            Assertions.assertEquals(1, outboxRelay.relay());
+            Assertions.assertEquals(earlierEventId.get(), inMemoryOutboxEventSink.getQueue().poll().getId());
+        } finally {
+            laterEventRelayed.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void publishedEventPurged_Success() {
+        final long outboxEventId = transactionTemplate.execute(
+                status -> outboxEventRepository.save(createOutboxEvent()).getId());
+
+        outboxRelay.purgePublished();
+        Assertions.assertTrue(outboxEventRepository.findById(outboxEventId).isPresent());
+
+        outboxRelay.relay();
+        inMemoryOutboxEventSink.getQueue().clear();
+        Assertions.assertTrue(outboxRelay.purgePublished() > 0);
+        Assertions.assertTrue(outboxEventRepository.findById(outboxEventId).isEmpty());
+    }
+
+    private OutboxEvent createOutboxEvent() {
+        final OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(OutboxEvent.RESERVATION_CREATED);
+        outboxEvent.setPayload("{}");
+        return outboxEvent;
+    }
+
+    private void awaitLatch(final CountDownLatch countDownLatch) {
+        try {
+            Assertions.assertTrue(countDownLatch.await(10, TimeUnit.SECONDS));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
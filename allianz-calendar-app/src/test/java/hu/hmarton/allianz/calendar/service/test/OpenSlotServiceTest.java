@@ -0,0 +1,96 @@
+package hu.hmarton.allianz.calendar.service.test;
+
+import hu.hmarton.allianz.calendar.dto.OpenSlotDTO;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.service.OpenSlotService;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.createCalendarEntry;
+
+/**
+ * Testing open slot computation against a mocked store.
+ */
+@ExtendWith(MockitoExtension.class)
+public class OpenSlotServiceTest {
+    @Mock
+    private CalendarEntryStore calendarEntryStore;
+
+    @InjectMocks
+    private OpenSlotService openSlotService;
+
+    @Test
+    public void listOpenSlotsOfEmptyDay_Success() {
+        mockCalendarEntries();
+
+        final SortedMap<LocalDate, List<OpenSlotDTO>> openSlotsByDay =
+                openSlotService.listOpenSlotsByDay(MONDAY.atStartOfDay(), MONDAY);
+
+        Assertions.assertEquals(List.of(MONDAY), List.copyOf(openSlotsByDay.keySet()));
+        final List<OpenSlotDTO> openSlots = openSlotsByDay.get(MONDAY);
+        Assertions.assertEquals(16, openSlots.size());
+        Assertions.assertEquals(MONDAY.atTime(9, 0), openSlots.get(0).getSlotStartDate());
+        Assertions.assertEquals(MONDAY.atTime(17, 0), openSlots.get(15).getSlotEndDate());
+    }
+
+    @Test
+    public void listOpenSlotsOfWeekWithOneQuery_Success() {
+        mockCalendarEntries(
+                createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(12, 0)),
+                createCalendarEntry(MONDAY.atTime(12, 0), MONDAY.atTime(17, 0)),
+                createCalendarEntry(MONDAY.plusDays(2).atTime(10, 0), MONDAY.plusDays(2).atTime(11, 30)));
+
+        final SortedMap<LocalDate, List<OpenSlotDTO>> openSlotsByDay =
+                openSlotService.listOpenSlotsByDay(MONDAY.atStartOfDay(), MONDAY.plusDays(6));
+
+        Mockito.verify(calendarEntryStore, Mockito.times(1))
+                .findByStartDateBetween(MONDAY.atTime(9, 0), MONDAY.plusDays(4).atTime(17, 0));
+        Assertions.assertEquals(5, openSlotsByDay.size());
+        Assertions.assertTrue(openSlotsByDay.get(MONDAY).isEmpty());
+        Assertions.assertEquals(16, openSlotsByDay.get(MONDAY.plusDays(1)).size());
+        final List<OpenSlotDTO> wednesdaySlots = openSlotsByDay.get(MONDAY.plusDays(2));
+        Assertions.assertEquals(13, wednesdaySlots.size());
+        Assertions.assertEquals(MONDAY.plusDays(2).atTime(10, 0), wednesdaySlots.get(1).getSlotEndDate());
+        Assertions.assertEquals(MONDAY.plusDays(2).atTime(11, 30), wednesdaySlots.get(2).getSlotStartDate());
+    }
+
+    @Test
+    public void listOpenSlotsFromMiddleOfRunningReservation_Success() {
+        mockCalendarEntries(createCalendarEntry(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        final List<OpenSlotDTO> openSlots =
+                openSlotService.listOpenSlotsByDay(MONDAY.atTime(10, 10), MONDAY).get(MONDAY);
+
+        Assertions.assertEquals(10, openSlots.size());
+        Assertions.assertEquals(MONDAY.atTime(12, 0), openSlots.get(0).getSlotStartDate());
+    }
+
+    @Test
+    public void listOpenSlotsOfMultipleWeeks_Success() {
+        mockCalendarEntries(createCalendarEntry(MONDAY.plusWeeks(2).atTime(9, 0), MONDAY.plusWeeks(2).atTime(12, 0)));
+
+        final SortedMap<LocalDate, List<OpenSlotDTO>> openSlotsByDay =
+                openSlotService.listOpenSlotsByDay(MONDAY.atStartOfDay(), MONDAY.plusWeeks(4).minusDays(1));
+
+        Assertions.assertEquals(20, openSlotsByDay.size());
+        Assertions.assertEquals(10, openSlotsByDay.get(MONDAY.plusWeeks(2)).size());
+        Assertions.assertEquals(16, openSlotsByDay.get(MONDAY.plusWeeks(3)).size());
+    }
+
+    private void mockCalendarEntries(final CalendarEntry... calendarEntries) {
+        Mockito.when(calendarEntryStore.findByStartDateBetween(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(calendarEntries));
+    }
+}
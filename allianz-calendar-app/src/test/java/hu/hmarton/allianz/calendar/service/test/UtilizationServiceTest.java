@@ -0,0 +1,92 @@
+package hu.hmarton.allianz.calendar.service.test;
+
+import hu.hmarton.allianz.calendar.dto.UtilizationDTO;
+import hu.hmarton.allianz.calendar.dto.UtilizationGranularity;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.service.OpenSlotService;
+import hu.hmarton.allianz.calendar.service.UtilizationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.createCalendarEntry;
+
+/**
+ * Testing utilization encoding against mocked reservations.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UtilizationServiceTest {
+    @Mock
+    private OpenSlotService openSlotService;
+
+    @InjectMocks
+    private UtilizationService utilizationService;
+
+    @Test
+    public void computeSlotUtilization_Success() {
+        mockCalendarEntriesOfFirstDay(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 30)),
+                createCalendarEntry(MONDAY.atTime(16, 30), MONDAY.atTime(17, 0)));
+
+        final UtilizationDTO utilizationDTO =
+                utilizationService.computeUtilization(MONDAY, MONDAY.plusDays(6), UtilizationGranularity.SLOT);
+
+        Assertions.assertEquals(5, utilizationDTO.getDayCount());
+        Assertions.assertEquals(16, utilizationDTO.getBucketsPerDay());
+        Assertions.assertEquals(4, utilizationDTO.getOccupiedSlotCount());
+        final byte[] data = Base64.getDecoder().decode(utilizationDTO.getData());
+        Assertions.assertEquals(10, data.length);
+        Assertions.assertEquals((byte) 0b11100000, data[0]);
+        Assertions.assertEquals((byte) 0b00000001, data[1]);
+        Assertions.assertEquals(0, data[2]);
+    }
+
+    @Test
+    public void computeHourUtilization_Success() {
+        mockCalendarEntriesOfFirstDay(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 30)));
+
+        final UtilizationDTO utilizationDTO =
+                utilizationService.computeUtilization(MONDAY, MONDAY, UtilizationGranularity.HOUR);
+
+        Assertions.assertEquals(8, utilizationDTO.getBucketsPerDay());
+        final byte[] data = Base64.getDecoder().decode(utilizationDTO.getData());
+        Assertions.assertArrayEquals(new byte[] {2, 1, 0, 0, 0, 0, 0, 0}, data);
+    }
+
+    @Test
+    public void computeDayUtilizationOfQuarter_Success() {
+        mockCalendarEntriesOfFirstDay(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(12, 0)));
+
+        final UtilizationDTO utilizationDTO =
+                utilizationService.computeUtilization(MONDAY, MONDAY.plusWeeks(12).minusDays(1),
+                        UtilizationGranularity.DAY);
+
+        Assertions.assertEquals(60, utilizationDTO.getDayCount());
+        final byte[] data = Base64.getDecoder().decode(utilizationDTO.getData());
+        Assertions.assertEquals(60, data.length);
+        Assertions.assertEquals(6, data[0]);
+        Assertions.assertEquals(0, data[59]);
+    }
+
+    private void mockCalendarEntriesOfFirstDay(final CalendarEntry... calendarEntries) {
+        Mockito.when(openSlotService.fetchCalendarEntriesByDay(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            final List<LocalDate> weekdays = invocation.getArgument(0);
+            final List<List<CalendarEntry>> calendarEntriesByDay = new ArrayList<>();
+            calendarEntriesByDay.add(List.of(calendarEntries));
+            for (int dayIndex = 1; dayIndex < weekdays.size(); dayIndex++) {
+                calendarEntriesByDay.add(List.of());
+            }
+            return calendarEntriesByDay;
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package hu.hmarton.allianz.calendar.service.test;
+
+import hu.hmarton.allianz.calendar.dto.WaitlistEntryDTO;
+import hu.hmarton.allianz.calendar.dto.WaitlistStatus;
+import hu.hmarton.allianz.calendar.exc.ValidationErrorMessages;
+import hu.hmarton.allianz.calendar.exc.ValidationException;
+import hu.hmarton.allianz.calendar.exc.WaitlistFullException;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.service.ReservationService;
+import hu.hmarton.allianz.calendar.service.WaitlistService;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.createCalendarEntry;
+
+/**
+ * Testing the waitlist against a mocked store, with room for two waiting requests.
+ */
+@ExtendWith(MockitoExtension.class)
+public class WaitlistServiceTest {
+    @Mock
+    private CalendarEntryStore calendarEntryStore;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Spy
+    private CalendarClock calendarClock = new CalendarClock(
+            Clock.fixed(MONDAY.minusDays(7).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    @InjectMocks
+    private WaitlistService waitlistService = new WaitlistService(2, 10, Duration.ofHours(1));
+
+    @Test
+    public void duplicateWaiter_Rejected() {
+        Mockito.when(calendarEntryStore.countOverlapping(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(1L);
+        waitlistService.reserveOrWait(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+
+        final ValidationException exception = Assertions.assertThrows(ValidationException.class,
+                () -> waitlistService.reserveOrWait(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0))));
+
+        Assertions.assertEquals(ValidationErrorMessages.VALIDATION_ERROR_WAITLIST_DUPLICATE, exception.getMessage());
+    }
+
+    @Test
+    public void fullWaitlist_Rejected() {
+        Mockito.when(calendarEntryStore.countOverlapping(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(1L);
+        waitlistService.reserveOrWait(createWaitingEntry("First Person"));
+        waitlistService.reserveOrWait(createWaitingEntry("Second Person"));
+
+        Assertions.assertThrows(WaitlistFullException.class,
+                () -> waitlistService.reserveOrWait(createWaitingEntry("Third Person")));
+    }
+
+    @Test
+    public void failedAllocationDoesNotSkipLaterWaiters_Success() {
+        Mockito.when(calendarEntryStore.countOverlapping(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(1L, 1L, 0L);
+        final CalendarEntry firstCalendarEntry = createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(9, 30));
+        final CalendarEntry secondCalendarEntry = createCalendarEntry(MONDAY.atTime(9, 30), MONDAY.atTime(10, 0));
+        final WaitlistEntryDTO firstWaiter = waitlistService.reserveOrWait(firstCalendarEntry);
+        final WaitlistEntryDTO secondWaiter = waitlistService.reserveOrWait(secondCalendarEntry);
+        Mockito.when(reservationService.saveReservation(firstCalendarEntry))
+                .thenThrow(new IllegalStateException("Storage failure"));
+        Mockito.when(reservationService.saveReservation(secondCalendarEntry)).thenReturn(secondCalendarEntry);
+
+        final int allocatedCount = waitlistService.allocateReleasedSlots(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+
+        Assertions.assertEquals(1, allocatedCount);
+        Assertions.assertEquals(WaitlistStatus.WAITING,
+                waitlistService.findWaitlistEntry(firstWaiter.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(WaitlistStatus.ALLOCATED,
+                waitlistService.findWaitlistEntry(secondWaiter.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void waitingRequestServedBeforeLaterRequest_Success() {
+        Mockito.when(calendarEntryStore.countOverlapping(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(1L, 0L, 1L);
+        Mockito.when(reservationService.saveReservation(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        final WaitlistEntryDTO firstWaiter = waitlistService.reserveOrWait(createWaitingEntry("First Person"));
+
+        final WaitlistEntryDTO secondWaiter = waitlistService.reserveOrWait(createWaitingEntry("Second Person"));
+
+        Assertions.assertEquals(WaitlistStatus.ALLOCATED,
+                waitlistService.findWaitlistEntry(firstWaiter.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(WaitlistStatus.WAITING, secondWaiter.getStatus());
+        Assertions.assertTrue(waitlistService.hasWaiters(MONDAY.atTime(9, 30), MONDAY.atTime(10, 0)));
+        Assertions.assertFalse(waitlistService.hasWaiters(MONDAY.atTime(10, 0), MONDAY.atTime(11, 0)));
+    }
+
+    private CalendarEntry createWaitingEntry(final String bookingPersonName) {
+        final CalendarEntry calendarEntry = createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0));
+        calendarEntry.setBookingPersonName(bookingPersonName);
+        return calendarEntry;
+    }
+}
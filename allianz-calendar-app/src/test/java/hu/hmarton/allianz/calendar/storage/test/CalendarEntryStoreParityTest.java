@@ -0,0 +1,52 @@
+package hu.hmarton.allianz.calendar.storage.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.storage.CalendarEntryStore;
+import hu.hmarton.allianz.calendar.storage.InMemoryCalendarEntryStore;
+import hu.hmarton.allianz.calendar.storage.JpaCalendarEntryStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.createCalendarEntry;
+
+/**
+ * Testing that both storage engines answer the same queries the same way, running the same fixture against each.
+ */
+@DataJpaTest
+@Import(JpaCalendarEntryStore.class)
+public class CalendarEntryStoreParityTest {
+    @Autowired
+    private JpaCalendarEntryStore jpaCalendarEntryStore;
+
+    @Test
+    public void adjacentReservationsInJpaStore_Success() {
+        assertAdjacentReservations(jpaCalendarEntryStore);
+    }
+
+    @Test
+    public void adjacentReservationsInMemoryStore_Success() {
+        assertAdjacentReservations(
+                new InMemoryCalendarEntryStore(new ObjectMapper().registerModule(new JavaTimeModule()), ""));
+    }
+
+    private void assertAdjacentReservations(final CalendarEntryStore store) {
+        //Monday from 9:00-10:00 and from 10:00-11:00
+        final CalendarEntry earlierCalendarEntry = store.insert(
+                createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+        final CalendarEntry laterCalendarEntry = store.insert(
+                createCalendarEntry(MONDAY.atTime(10, 0), MONDAY.atTime(11, 0)));
+
+        Assertions.assertEquals(earlierCalendarEntry.getId(), store.getByDate(MONDAY.atTime(9, 0)).orElseThrow().getId());
+        Assertions.assertEquals(laterCalendarEntry.getId(), store.getByDate(MONDAY.atTime(10, 0)).orElseThrow().getId());
+        Assertions.assertTrue(store.getByDate(MONDAY.atTime(11, 0)).isEmpty());
+        Assertions.assertEquals(2, store.countOverlapping(MONDAY.atTime(9, 30), MONDAY.atTime(10, 30)));
+        Assertions.assertEquals(0, store.countOverlapping(MONDAY.atTime(11, 0), MONDAY.atTime(12, 0)));
+        Assertions.assertEquals(2, store.findByStartDateBetween(MONDAY.atTime(9, 0), MONDAY.atTime(17, 0)).size());
+    }
+}
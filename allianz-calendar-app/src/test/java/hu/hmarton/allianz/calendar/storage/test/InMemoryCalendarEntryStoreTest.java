@@ -0,0 +1,142 @@
+package hu.hmarton.allianz.calendar.storage.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+import hu.hmarton.allianz.calendar.storage.InMemoryCalendarEntryStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.MONDAY;
+import static hu.hmarton.allianz.calendar.test.CalendarEntryFixtures.createCalendarEntry;
+
+/**
+ * Testing the in-memory storage engine.
+ */
+public class InMemoryCalendarEntryStoreTest {
+    @TempDir
+    private Path temporaryDirectory;
+
+    @Test
+    public void findByStartDateBetweenOrdered_Success() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        store.insert(createCalendarEntry(MONDAY.atTime(13, 0), MONDAY.atTime(14, 0)));
+        store.insert(createCalendarEntry(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+        store.insert(createCalendarEntry(MONDAY.plusDays(1).atTime(9, 0), MONDAY.plusDays(1).atTime(10, 0)));
+
+        final List<CalendarEntry> calendarEntries =
+                store.findByStartDateBetween(MONDAY.atTime(9, 0), MONDAY.atTime(17, 0));
+
+        Assertions.assertEquals(2, calendarEntries.size());
+        Assertions.assertEquals(MONDAY.atTime(9, 0), calendarEntries.get(0).getStartDate());
+        Assertions.assertEquals(MONDAY.atTime(13, 0), calendarEntries.get(1).getStartDate());
+    }
+
+    @Test
+    public void countOverlapping_Success() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        store.insert(createCalendarEntry(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+        store.insert(createCalendarEntry(MONDAY.atTime(14, 0), MONDAY.atTime(14, 30)));
+
+        Assertions.assertEquals(1, store.countOverlapping(MONDAY.atTime(11, 0), MONDAY.atTime(13, 0)));
+        Assertions.assertEquals(1, store.countOverlapping(MONDAY.atTime(13, 0), MONDAY.atTime(16, 0)));
+        Assertions.assertEquals(2, store.countOverlapping(MONDAY.atTime(9, 0), MONDAY.atTime(17, 0)));
+        Assertions.assertEquals(0, store.countOverlapping(MONDAY.atTime(12, 0), MONDAY.atTime(14, 0)));
+    }
+
+    @Test
+    public void getByDate_Success() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        store.insert(createCalendarEntry(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        Assertions.assertTrue(store.getByDate(MONDAY.atTime(11, 0)).isPresent());
+        Assertions.assertTrue(store.getByDate(MONDAY.atTime(12, 0)).isEmpty());
+        Assertions.assertTrue(store.getByDate(MONDAY.atTime(12, 30)).isEmpty());
+    }
+
+    @Test
+    public void insertWithUsedIdempotencyKey_Error() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        final CalendarEntry calendarEntry = store.insert(
+                createCalendarEntryWithKey(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        Assertions.assertEquals(calendarEntry.getId(), store.findByIdempotencyKey("key").orElseThrow().getId());
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> store.insert(
+                createCalendarEntryWithKey(MONDAY.atTime(13, 0), MONDAY.atTime(14, 0))));
+    }
+
+    @Test
+    public void delete_Success() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        final CalendarEntry calendarEntry = store.insert(
+                createCalendarEntryWithKey(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        Assertions.assertEquals(calendarEntry.getId(), store.delete(calendarEntry.getId()).orElseThrow().getId());
+        Assertions.assertTrue(store.delete(calendarEntry.getId()).isEmpty());
+        Assertions.assertEquals(0, store.countOverlapping(MONDAY.atTime(9, 0), MONDAY.atTime(17, 0)));
+        Assertions.assertTrue(store.findByIdempotencyKey("key").isEmpty());
+    }
+
+    @Test
+    public void restoreSnapshot_Success() throws Exception {
+        final String snapshotPath = temporaryDirectory.resolve("calendar-entries.json").toString();
+        final InMemoryCalendarEntryStore store = createStore(snapshotPath);
+        final CalendarEntry calendarEntry = store.insert(
+                createCalendarEntryWithKey(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+        store.saveSnapshot();
+
+        final InMemoryCalendarEntryStore restoredStore = createStore(snapshotPath);
+        restoredStore.restoreSnapshot();
+
+        Assertions.assertEquals(calendarEntry.getId(), restoredStore.getByDate(MONDAY.atTime(11, 0)).orElseThrow().getId());
+        Assertions.assertTrue(restoredStore.findByIdempotencyKey("key").isPresent());
+        Assertions.assertTrue(restoredStore.insert(createCalendarEntry(MONDAY.atTime(13, 0), MONDAY.atTime(14, 0)))
+                .getId() > calendarEntry.getId());
+    }
+
+    @Test
+    public void writesUndoneOnRollback_Success() {
+        final InMemoryCalendarEntryStore store = createStore("");
+        final CalendarEntry calendarEntry = store.insert(
+                createCalendarEntryWithKey(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        runRolledBack(() -> {
+            store.insert(createCalendarEntry(MONDAY.atTime(13, 0), MONDAY.atTime(14, 0)));
+            store.delete(calendarEntry.getId());
+        });
+
+        Assertions.assertEquals(calendarEntry.getId(), store.getByDate(MONDAY.atTime(11, 0)).orElseThrow().getId());
+        Assertions.assertTrue(store.findByIdempotencyKey("key").isPresent());
+        Assertions.assertEquals(0, store.countOverlapping(MONDAY.atTime(13, 0), MONDAY.atTime(14, 0)));
+    }
+
+    private void runRolledBack(final Runnable writes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writes.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CalendarEntry createCalendarEntryWithKey(final LocalDateTime startDate, final LocalDateTime endDate) {
+        final CalendarEntry calendarEntry = createCalendarEntry(startDate, endDate);
+        calendarEntry.setIdempotencyKey("key");
+        return calendarEntry;
+    }
+
+    private InMemoryCalendarEntryStore createStore(final String snapshotPath) {
+        return new InMemoryCalendarEntryStore(new ObjectMapper().registerModule(new JavaTimeModule()), snapshotPath);
+    }
+}
@@ -0,0 +1,34 @@
+package hu.hmarton.allianz.calendar.test;
+
+import hu.hmarton.allianz.calendar.model.CalendarEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fixtures shared by the unit tests working with {@link CalendarEntry} objects.
+ */
+public final class CalendarEntryFixtures {
+    /** A Monday far in the future, the first day of the unit tests. */
+    public static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    /**
+     * Hidden constructor.
+     */
+    private CalendarEntryFixtures() {
+    }
+
+    /**
+     * Creates a calendar entry of a test person.
+     * @param startDate Start date of the reservation
+     * @param endDate End date of the reservation
+     * @return New calendar entry
+     */
+    public static CalendarEntry createCalendarEntry(final LocalDateTime startDate, final LocalDateTime endDate) {
+        final CalendarEntry calendarEntry = new CalendarEntry();
+        calendarEntry.setBookingPersonName("Test Person");
+        calendarEntry.setStartDate(startDate);
+        calendarEntry.setEndDate(endDate);
+        return calendarEntry;
+    }
+}
@@ -0,0 +1,31 @@
+package hu.hmarton.allianz.calendar.test;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Test configuration replacing the clock of the calendar by a fixed one, so the dates of the integration tests
+ * don't depend on the day or the zone they run in. Tests importing it should derive their dates from the
+ * {@link Clock} bean, or take them from {@link CalendarEntryFixtures}, whose {@code MONDAY} is the next Monday.
+ */
+@TestConfiguration
+public class FixedClockConfig {
+    /** The Wednesday morning before {@link CalendarEntryFixtures#MONDAY} in UTC, the zone of the calendar by default. */
+    private static final Instant NOW = CalendarEntryFixtures.MONDAY.minusDays(5).atTime(8, 0)
+            .toInstant(ZoneOffset.UTC);
+
+    /**
+     * Fixed clock of the calendar, preferred over the system clock of {@code ClockConfig}.
+     * @return Clock always returning the same Wednesday morning
+     */
+    @Bean
+    @Primary
+    public Clock fixedClock() {
+        return Clock.fixed(NOW, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,47 @@
+package hu.hmarton.allianz.calendar.time.test;
+
+import hu.hmarton.allianz.calendar.time.CalendarClock;
+import hu.hmarton.allianz.calendar.time.WeekBoundaries;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Testing the calendar clock against fixed clocks of different zones.
+ */
+public class CalendarClockTest {
+    /** Sunday 23:30 in UTC, already Monday in Budapest. */
+    private static final Instant SUNDAY_NIGHT_UTC = Instant.parse("2030-01-06T23:30:00Z");
+    /** Monday of the week following {@link #SUNDAY_NIGHT_UTC}. */
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    public void nowInCalendarZone_Success() {
+        final CalendarClock utcClock = new CalendarClock(Clock.fixed(SUNDAY_NIGHT_UTC, ZoneOffset.UTC));
+        final CalendarClock budapestClock =
+                new CalendarClock(Clock.fixed(SUNDAY_NIGHT_UTC, ZoneId.of("Europe/Budapest")));
+
+        Assertions.assertEquals(MONDAY.minusDays(1).atTime(23, 30), utcClock.now());
+        Assertions.assertEquals(MONDAY.atTime(0, 30), budapestClock.now());
+        Assertions.assertEquals(MONDAY, budapestClock.today());
+    }
+
+    @Test
+    public void currentWeekDependsOnZone_Success() {
+        final WeekBoundaries utcWeek = new CalendarClock(Clock.fixed(SUNDAY_NIGHT_UTC, ZoneOffset.UTC)).currentWeek();
+        final WeekBoundaries budapestWeek =
+                new CalendarClock(Clock.fixed(SUNDAY_NIGHT_UTC, ZoneId.of("Europe/Budapest"))).currentWeek();
+
+        Assertions.assertEquals(MONDAY.minusWeeks(1), utcWeek.monday());
+        Assertions.assertEquals(MONDAY, budapestWeek.monday());
+        Assertions.assertEquals(MONDAY.plusDays(4), budapestWeek.friday());
+        Assertions.assertEquals(MONDAY.atStartOfDay(), budapestWeek.start());
+        Assertions.assertEquals(LocalTime.MAX.atDate(MONDAY.plusDays(4)), budapestWeek.end());
+    }
+}